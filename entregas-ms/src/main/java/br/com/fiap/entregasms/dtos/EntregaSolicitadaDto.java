@@ -0,0 +1,6 @@
+package br.com.fiap.entregasms.dtos;
+
+import java.util.UUID;
+
+public record EntregaSolicitadaDto(UUID pedidoId, String destinatario, String enderecoCompleto) {
+}
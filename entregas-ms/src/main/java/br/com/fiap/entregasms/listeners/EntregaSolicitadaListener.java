@@ -0,0 +1,41 @@
+package br.com.fiap.entregasms.listeners;
+
+import br.com.fiap.entregasms.dtos.EntregaSolicitadaDto;
+import br.com.fiap.entregasms.models.Entrega;
+import br.com.fiap.entregasms.services.EntregaService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consome as solicitacoes de entrega publicadas pela outbox do vendas-ms.
+ * <p>
+ * A entrega usa o id do pedido como id, entao uma mensagem reentregue nao gera uma
+ * segunda entrega.
+ */
+@Component
+class EntregaSolicitadaListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntregaSolicitadaListener.class);
+
+    private final EntregaService entregaService;
+    private final ObjectMapper objectMapper;
+
+    EntregaSolicitadaListener(EntregaService entregaService, ObjectMapper objectMapper) {
+        this.entregaService = entregaService;
+        this.objectMapper = objectMapper;
+    }
+
+    @JmsListener(destination = "${entregas.fila:entregas.solicitadas}", concurrency = "${entregas.fila.concorrencia:1-4}")
+    public void onEntregaSolicitada(String mensagem) throws JsonProcessingException {
+        final EntregaSolicitadaDto solicitacao = this.objectMapper.readValue(mensagem, EntregaSolicitadaDto.class);
+        final boolean registrada = this.entregaService.registrar(new Entrega(solicitacao.pedidoId(),
+                solicitacao.destinatario(), solicitacao.enderecoCompleto(), Entrega.Status.PENDENTE));
+        if (!registrada) {
+            LOGGER.debug("Entrega do pedido {} ja registrada, mensagem ignorada", solicitacao.pedidoId());
+        }
+    }
+}
@@ -11,4 +11,12 @@ public interface EntregaService {
     void evoluirStatus(UUID id);
 
     void save(Entrega entrega);
+
+    /**
+     * Registra a entrega de um pedido. Ignora pedidos ja registrados, ja que o vendas-ms
+     * pode reenviar a mesma solicitacao.
+     *
+     * @return {@code false} se a entrega ja existia
+     */
+    boolean registrar(Entrega entrega);
 }
@@ -3,6 +3,7 @@ package br.com.fiap.entregasms.services;
 import br.com.fiap.entregasms.models.Entrega;
 import br.com.fiap.entregasms.repositories.EntregaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,4 +33,14 @@ final class EntregaServiceImpl implements EntregaService {
     public void save(Entrega entrega) {
         this.repository.save(entrega);
     }
+
+    @Override
+    @Transactional
+    public boolean registrar(Entrega entrega) {
+        if (this.repository.existsById(entrega.getId())) {
+            return false;
+        }
+        this.repository.save(entrega);
+        return true;
+    }
 }
@@ -0,0 +1,29 @@
+package br.com.fiap.vendasms.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AsyncConfig {
+
+    // Chamadas ao ViaCEP sao I/O bloqueante: uma virtual thread por consulta
+    @Bean(destroyMethod = "close")
+    public ExecutorService cepExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Envio de eventos SSE: escrita bloqueante na resposta de cada navegador conectado
+    @Bean(destroyMethod = "close")
+    public ExecutorService sseExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Importacoes de clientes em segundo plano: poucas, longas e bloqueadas em banco e ViaCEP
+    @Bean(destroyMethod = "close")
+    public ExecutorService importacaoExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
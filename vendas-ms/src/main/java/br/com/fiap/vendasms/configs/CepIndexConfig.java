@@ -0,0 +1,20 @@
+package br.com.fiap.vendasms.configs;
+
+import br.com.fiap.vendasms.external_interface.offline.CepIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class CepIndexConfig {
+
+    @Bean
+    @ConditionalOnProperty("cep.index.path")
+    public CepIndex cepIndex(@Value("${cep.index.path}") Path path) throws IOException {
+        return CepIndex.open(path);
+    }
+}
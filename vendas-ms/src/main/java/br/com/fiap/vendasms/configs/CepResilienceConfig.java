@@ -0,0 +1,61 @@
+package br.com.fiap.vendasms.configs;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker e bulkhead da integracao com o ViaCEP. O prazo de cada chamada
+ * fica nos timeouts do cliente Feign (spring.cloud.openfeign.client.config.cep-api).
+ */
+@Configuration
+public class CepResilienceConfig {
+
+    @Bean
+    public CircuitBreaker cepCircuitBreaker(MeterRegistry meterRegistry,
+                                            @Value("${cep.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                            @Value("${cep.circuit-breaker.slow-call-duration:PT1S}") Duration slowCallDuration,
+                                            @Value("${cep.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                            @Value("${cep.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                            @Value("${cep.circuit-breaker.wait-in-open-state:PT30S}") Duration waitInOpenState,
+                                            @Value("${cep.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                // CEP inexistente ou mal formatado nao indica falha do ViaCEP
+                .ignoreExceptions(FeignException.BadRequest.class, FeignException.NotFound.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker("cep");
+    }
+
+    @Bean
+    public Bulkhead cepBulkhead(MeterRegistry meterRegistry,
+                                @Value("${cep.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead("cep");
+    }
+}
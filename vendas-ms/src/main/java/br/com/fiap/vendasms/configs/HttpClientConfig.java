@@ -0,0 +1,34 @@
+package br.com.fiap.vendasms.configs;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Cliente HTTP de saida compartilhado. O pool (Apache HttpClient 5) e criado pelo
+ * Spring Cloud OpenFeign a partir de spring.cloud.openfeign.httpclient.* e reutilizado
+ * aqui pelos RestTemplates, entao Feign e RestTemplate dividem as mesmas conexoes keep-alive.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient5) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient5))
+                .build();
+    }
+
+    @Bean
+    public MeterBinder outboundPoolMetrics(HttpClientConnectionManager hc5ConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(
+                (PoolingHttpClientConnectionManager) hc5ConnectionManager, "outbound");
+    }
+}
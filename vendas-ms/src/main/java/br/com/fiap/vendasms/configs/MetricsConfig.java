@@ -0,0 +1,69 @@
+package br.com.fiap.vendasms.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metricas que o Spring Boot nao coleta sozinho. O http.server.requests mede a acao inteira;
+ * aqui o tempo de renderizacao da view (entre o postHandle e o afterCompletion) e medido a
+ * parte, como vendas.view.render com a tag {@code view}.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderTimer(this.meterRegistry));
+    }
+
+    static final class ViewRenderTimer implements HandlerInterceptor {
+
+        private static final String INICIO = ViewRenderTimer.class.getName() + ".inicio";
+        private static final String VIEW = ViewRenderTimer.class.getName() + ".view";
+
+        private final MeterRegistry meterRegistry;
+
+        ViewRenderTimer(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                               ModelAndView modelAndView) {
+            // Redirects nao renderizam template
+            if (modelAndView != null && modelAndView.getViewName() != null
+                    && !modelAndView.getViewName().startsWith("redirect:")) {
+                request.setAttribute(VIEW, modelAndView.getViewName());
+                request.setAttribute(INICIO, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            if (request.getAttribute(INICIO) instanceof Long inicio) {
+                Timer.builder("vendas.view.render")
+                        .description("Tempo de renderizacao do template")
+                        .tag("view", (String) request.getAttribute(VIEW))
+                        .tag("outcome", ex == null ? "SUCCESS" : "ERROR")
+                        .register(this.meterRegistry)
+                        .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.fiap.vendasms.configs;
 
 import br.com.fiap.vendasms.service.CustomOAuth2UserService;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -22,6 +23,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(requests -> requests
                         .requestMatchers("/clientes/**").hasRole("CLIENTE_EDIT")
                         .requestMatchers("/pedidos/**").hasRole("PEDIDO")
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        // Scrape do Prometheus sem login, mas so na porta de gerenciamento (management.server.port),
+                        // fora da porta publica; /actuator/metrics continua exigindo login
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(
@@ -0,0 +1,117 @@
+package br.com.fiap.vendasms.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Ativa com spring.threads.virtual.enabled=true. Uma virtual thread que bloqueia dentro de um
+ * {@code synchronized} (ou em codigo nativo) prende a thread carregadora, e com poucas carregadoras
+ * isso volta a limitar a concorrencia. O evento jdk.VirtualThreadPinned do JFR e lido em streaming
+ * e vira o timer vendas.threads.virtual.pinned, com a tag {@code origem} (primeira classe fora do
+ * JDK na pilha, ex.: o driver JDBC). A primeira ocorrencia de cada origem e logada com a pilha.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    PinningMonitor pinningMonitor(MeterRegistry meterRegistry,
+                                  @Value("${virtual-threads.pinned.threshold:PT0.02S}") Duration limite) {
+        return new PinningMonitor(meterRegistry, limite);
+    }
+
+    static final class PinningMonitor implements SmartLifecycle {
+
+        static final String EVENTO = "jdk.VirtualThreadPinned";
+        private static final Logger LOGGER = LoggerFactory.getLogger(PinningMonitor.class);
+        private static final int FRAMES_NO_LOG = 15;
+
+        private final MeterRegistry meterRegistry;
+        private final Duration limite;
+        private final Set<String> origensLogadas = ConcurrentHashMap.newKeySet();
+        private volatile RecordingStream stream;
+
+        PinningMonitor(MeterRegistry meterRegistry, Duration limite) {
+            this.meterRegistry = meterRegistry;
+            this.limite = limite;
+        }
+
+        @Override
+        public void start() {
+            final RecordingStream recording = new RecordingStream();
+            recording.enable(EVENTO).withThreshold(this.limite).withStackTrace();
+            recording.onEvent(EVENTO, this::registrar);
+            recording.startAsync();
+            this.stream = recording;
+        }
+
+        @Override
+        public void stop() {
+            final RecordingStream recording = this.stream;
+            this.stream = null;
+            if (recording != null) {
+                recording.close();
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return this.stream != null;
+        }
+
+        void registrar(RecordedEvent evento) {
+            final RecordedStackTrace pilha = evento.getStackTrace();
+            final String origem = origem(pilha);
+            Timer.builder("vendas.threads.virtual.pinned")
+                    .description("Tempo em que uma virtual thread ficou presa a thread carregadora")
+                    .tag("origem", origem)
+                    .register(this.meterRegistry)
+                    .record(evento.getDuration());
+            if (this.origensLogadas.add(origem)) {
+                LOGGER.warn("Virtual thread presa a carregadora por {} ms em {}:\n{}",
+                        evento.getDuration().toMillis(), origem, frames(pilha));
+            }
+        }
+
+        private static String origem(RecordedStackTrace pilha) {
+            if (pilha == null) {
+                return "desconhecida";
+            }
+            return pilha.getFrames().stream()
+                    .filter(RecordedFrame::isJavaFrame)
+                    .map(frame -> frame.getMethod().getType().getName())
+                    .filter(classe -> !classe.startsWith("java.") && !classe.startsWith("jdk.")
+                            && !classe.startsWith("sun."))
+                    .findFirst()
+                    .orElse("jdk");
+        }
+
+        private static String frames(RecordedStackTrace pilha) {
+            if (pilha == null) {
+                return "";
+            }
+            return pilha.getFrames().stream()
+                    .limit(FRAMES_NO_LOG)
+                    .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.events.UsuarioRolesAlteradosEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AdminController(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Chamar apos alterar usuarios_roles direto no banco; vale a partir do proximo login
+    @DeleteMapping("/usuarios/{login}/roles/cache")
+    public ResponseEntity<Void> evictRoles(@PathVariable("login") String login) {
+        this.eventPublisher.publishEvent(new UsuarioRolesAlteradosEvent(login));
+        return ResponseEntity.noContent().build();
+    }
+}
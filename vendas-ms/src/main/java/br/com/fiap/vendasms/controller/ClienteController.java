@@ -1,12 +1,14 @@
 package br.com.fiap.vendasms.controller;
 
 import br.com.fiap.vendasms.dto.ClienteDto;
-import br.com.fiap.vendasms.external_interface.feign.CepApi;
-import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.service.CepService;
 import br.com.fiap.vendasms.service.ClienteService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.NoSuchElementException;
 
@@ -15,11 +17,11 @@ import java.util.NoSuchElementException;
 public class ClienteController extends CommonController{
 
     private final ClienteService clienteService;
-    private final CepApi cepApi;
+    private final CepService cepService;
 
-    public ClienteController(ClienteService clienteService, CepApi cepApi) {
+    public ClienteController(ClienteService clienteService, CepService cepService) {
         this.clienteService = clienteService;
-        this.cepApi = cepApi;
+        this.cepService = cepService;
     }
 
     @GetMapping
@@ -37,8 +39,9 @@ public class ClienteController extends CommonController{
             clienteDto = ClienteDto.empty(form.cpf());
         }
 
-        if(clienteDto.cep() != null && !clienteDto.cep().isBlank()){
-            var cepDetails = this.cepApi.get(clienteDto.cep());
+        // Endereco gravado no cliente; o ViaCEP so e consultado enquanto ele ainda nao foi resolvido
+        if(clienteDto.logradouro() == null && clienteDto.cep() != null && !clienteDto.cep().isBlank()){
+            var cepDetails = this.cepService.get(clienteDto.cep());
             clienteDto = clienteDto.enrichWith(cepDetails);
         }
 
@@ -47,14 +50,27 @@ public class ClienteController extends CommonController{
     }
 
     @GetMapping("/detalhe/{cpf}")
-    public String detalhe(@PathVariable("cpf") String cpf, Model model){
+    public String detalhe(@PathVariable("cpf") String cpf, ServletWebRequest request, Model model){
+        try {
+            if (naoModificado(request, this.clienteService.findById(cpf).getVersao())) {
+                return null;
+            }
+        } catch (NoSuchElementException e){
+            // Cliente novo: formulario vazio, sem ETag
+        }
         return detalhe(ClienteDto.empty(cpf),model);
     }
 
     @PostMapping("/save")
     public String save(@ModelAttribute ClienteDto cliente){
-        this.clienteService.saveOrUpdate(cliente.toEntity());
-        return "redirect:/pedidos/detalhe/"+cliente.cpf();
+        final Cliente entity = cliente.toEntity();
+        this.clienteService.saveOrUpdate(entity);
+        return "redirect:/pedidos/detalhe/"+entity.getCpf();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> cpfInvalido(IllegalArgumentException e){
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
 
 }
@@ -0,0 +1,61 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.dto.ClienteImportacaoDto;
+import br.com.fiap.vendasms.service.ClienteImportacaoService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Importacao de clientes em lote (ex.: carteira de um parceiro). O envio responde 202 assim que
+ * o arquivo e lido; o progresso fica em {@code GET /clientes/importacoes/{id}}. A leitura guarda
+ * um cliente por CPF em memoria, entao o arquivo e limitado a {@code clientes.importacao.tamanho-maximo}.
+ */
+@RestController
+@RequestMapping("/clientes/importacoes")
+public class ClienteImportacaoController {
+
+    private final ClienteImportacaoService importacaoService;
+    private final DataSize tamanhoMaximo;
+
+    public ClienteImportacaoController(ClienteImportacaoService importacaoService,
+                                       @Value("${clientes.importacao.tamanho-maximo:20MB}") DataSize tamanhoMaximo) {
+        this.importacaoService = importacaoService;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * CSV separado por ponto e virgula: {@code cpf;nome;cep;numero;complemento;telefone}, cabecalho opcional.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ClienteImportacaoDto> importar(@RequestParam("arquivo") MultipartFile arquivo) throws IOException {
+        if (arquivo.getSize() > this.tamanhoMaximo.toBytes()) {
+            throw new MaxUploadSizeExceededException(this.tamanhoMaximo.toBytes());
+        }
+        final ClienteImportacaoDto importacao = this.importacaoService.importar(arquivo.getInputStream());
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").build(importacao.id()))
+                .body(importacao);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ClienteImportacaoDto> progresso(@PathVariable("id") UUID id) {
+        return ResponseEntity.of(this.importacaoService.progresso(id));
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> arquivoGrande(MaxUploadSizeExceededException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of("erro", "Arquivo maior que " + this.tamanhoMaximo.toMegabytes() + "MB; divida a importacao"));
+    }
+}
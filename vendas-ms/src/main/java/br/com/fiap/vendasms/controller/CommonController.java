@@ -1,9 +1,13 @@
 package br.com.fiap.vendasms.controller;
 
 import br.com.fiap.vendasms.utils.GitHubUserUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Objects;
 
 public abstract class CommonController {
 
@@ -12,4 +16,17 @@ public abstract class CommonController {
         model.addAttribute("username", GitHubUserUtils.getUsername(authentication));
         model.addAttribute("urlAvatar",GitHubUserUtils.getAvatar(authentication));
     }
+
+    // ETag fraco a partir da versao do cliente. A sessao entra no hash porque a pagina traz o usuario
+    // logado e o token CSRF dos formularios; o idioma, porque as mensagens mudam com ele.
+    // Retorna true quando o navegador ja tem a pagina: o handler deve retornar null (304).
+    protected boolean naoModificado(ServletWebRequest request, Long versao) {
+        if (versao == null) {
+            return false;
+        }
+        // private/no-cache: pode guardar, mas revalida sempre (substitui o no-store padrao do Spring Security)
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        final int contexto = Objects.hash(request.getSessionId(), request.getLocale());
+        return request.checkNotModified("W/\"" + versao + "-" + Integer.toHexString(contexto) + "\"");
+    }
 }
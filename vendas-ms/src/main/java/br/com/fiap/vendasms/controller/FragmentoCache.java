@@ -0,0 +1,124 @@
+package br.com.fiap.vendasms.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de renderizacao dos fragmentos que nao dependem dos dados da pagina. A navbar so muda
+ * com o idioma, o usuario logado e a pagina ativa: e renderizada uma vez por combinacao e as
+ * paginas inserem o HTML pronto ({@code th:utext="${@fragmentos.navbar(...)}"}) em vez de
+ * reavaliar o fragmento e as mensagens a cada requisicao.
+ * <p>
+ * Metricas: vendas.view.fragmento.render (renderizacoes de fato, nas faltas do cache) e
+ * vendas.view.fragmento.economizado (soma do tempo de renderizacao que cada acerto evitou).
+ */
+@Component("fragmentos")
+public class FragmentoCache {
+
+    private static final String TEMPLATE = "fragments";
+
+    private final ITemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Chave, Renderizado> cache;
+
+    public FragmentoCache(ITemplateEngine templateEngine,
+                          MeterRegistry meterRegistry,
+                          @Value("${fragmentos.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${fragmentos.cache.ttl:PT1H}") Duration ttl) {
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "fragmentos");
+    }
+
+    public String navbar(String activePage, String username, String urlAvatar) {
+        final Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("activePage", activePage);
+        variaveis.put("username", username);
+        variaveis.put("urlAvatar", urlAvatar);
+        return renderizar("navbar", variaveis);
+    }
+
+    private String renderizar(String fragmento, Map<String, Object> variaveis) {
+        final Chave chave = new Chave(fragmento, LocaleContextHolder.getLocale(), variaveis);
+        final Renderizado emCache = this.cache.getIfPresent(chave);
+        if (emCache != null) {
+            Counter.builder("vendas.view.fragmento.economizado")
+                    .description("Tempo de renderizacao evitado pelo cache de fragmentos")
+                    .baseUnit("seconds")
+                    .tag("fragmento", fragmento)
+                    .register(this.meterRegistry)
+                    .increment(emCache.nanos() / 1e9);
+            return emCache.html();
+        }
+        // Duas requisicoes simultaneas podem renderizar a mesma chave: o resultado e identico
+        final long inicio = System.nanoTime();
+        final String html = this.templateEngine.process(TEMPLATE, Set.of(fragmento), contexto(chave.locale(), variaveis));
+        final long nanos = System.nanoTime() - inicio;
+        Timer.builder("vendas.view.fragmento.render")
+                .description("Tempo de renderizacao dos fragmentos fora do cache")
+                .tag("fragmento", fragmento)
+                .register(this.meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        this.cache.put(chave, new Renderizado(html, nanos));
+        return html;
+    }
+
+    // Contexto web para os links @{...} receberem o context path da aplicacao
+    private static WebContext contexto(Locale locale, Map<String, Object> variaveis) {
+        final ServletRequestAttributes atributos = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        final HttpServletRequest request = atributos.getRequest();
+        return new WebContext(JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, new SemReescritaDeUrl(atributos.getResponse())), locale, variaveis);
+    }
+
+    private record Chave(String fragmento, Locale locale, Map<String, Object> variaveis) {
+    }
+
+    private record Renderizado(String html, long nanos) {
+    }
+
+    // O HTML e compartilhado entre requisicoes: nenhum jsessionid da sessao atual pode ir para os links
+    private static final class SemReescritaDeUrl extends HttpServletResponseWrapper {
+
+        SemReescritaDeUrl(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+}
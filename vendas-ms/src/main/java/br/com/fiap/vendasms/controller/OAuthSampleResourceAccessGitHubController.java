@@ -22,9 +22,12 @@ public class OAuthSampleResourceAccessGitHubController {
 
 
     private final OAuth2AuthorizedClientService authorizedClientService;
+    private final RestTemplate restTemplate;
 
-    public OAuthSampleResourceAccessGitHubController(OAuth2AuthorizedClientService authorizedClientService) {
+    public OAuthSampleResourceAccessGitHubController(OAuth2AuthorizedClientService authorizedClientService,
+                                                     RestTemplate restTemplate) {
         this.authorizedClientService = authorizedClientService;
+        this.restTemplate = restTemplate;
     }
 
     @GetMapping("/repos")
@@ -40,8 +43,7 @@ public class OAuthSampleResourceAccessGitHubController {
         headers.setBearerAuth(token);
         headers.set("Accept", "application/vnd.github+json");
 
-        RestTemplate restTemplate = new RestTemplate();
-        List<Map<String,Object>> repos = restTemplate.exchange(
+        List<Map<String,Object>> repos = this.restTemplate.exchange(
                 "https://api.github.com/user/repos?type=public&per_page=100",
                 HttpMethod.GET,
                 new HttpEntity<>(headers),
@@ -0,0 +1,44 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.dto.PedidoBuscaDto;
+import br.com.fiap.vendasms.dto.PedidoOutputDto;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import br.com.fiap.vendasms.service.PedidoService;
+import br.com.fiap.vendasms.utils.CursorUtils;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Busca de pedidos para o suporte, ex.: {@code /pedidos/busca?texto=atraso&status=PENDENTE_ENVIO}.
+ * Paginada pelo cursor devolvido em {@code proximoCursor}.
+ */
+@RestController
+@RequestMapping("/pedidos/busca")
+public class PedidoBuscaController {
+
+    private final PedidoService pedidoService;
+
+    public PedidoBuscaController(PedidoService pedidoService) {
+        this.pedidoService = pedidoService;
+    }
+
+    @GetMapping
+    public PedidoBuscaDto buscar(@RequestParam(required = false) String texto,
+                                 @RequestParam(required = false) Pedido.Status status,
+                                 @RequestParam(required = false) String cpf,
+                                 @RequestParam(required = false) String cursor) {
+        final Window<PedidoListagem> pagina = this.pedidoService.buscar(texto, status, cpf, CursorUtils.decode(cursor));
+        return new PedidoBuscaDto(
+                pagina.map(PedidoOutputDto::from).getContent(),
+                pagina.hasNext() && !pagina.isEmpty() ? CursorUtils.encode(pagina.getContent().getLast().id()) : null);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> filtroInvalido(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+    }
+}
@@ -5,15 +5,19 @@ import br.com.fiap.vendasms.dto.PedidoInputDto;
 import br.com.fiap.vendasms.dto.PedidoOutputDto;
 import br.com.fiap.vendasms.entities.Cliente;
 import br.com.fiap.vendasms.entities.Pedido;
-import br.com.fiap.vendasms.external_interface.feign.CepApi;
-import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
 import br.com.fiap.vendasms.service.ClienteService;
+import br.com.fiap.vendasms.service.PedidoEventosService;
 import br.com.fiap.vendasms.service.PedidoService;
+import br.com.fiap.vendasms.utils.CpfUtils;
+import br.com.fiap.vendasms.utils.CursorUtils;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Controller
 @RequestMapping("/pedidos")
@@ -21,12 +25,13 @@ public class PedidoController extends CommonController {
 
     private final PedidoService pedidoService;
     private final ClienteService clienteService;
-    private final CepApi cepApi;
+    private final PedidoEventosService pedidoEventosService;
 
-    public PedidoController(PedidoService pedidoService, ClienteService clienteService, CepApi cepApi) {
+    public PedidoController(PedidoService pedidoService, ClienteService clienteService,
+                            PedidoEventosService pedidoEventosService) {
         this.pedidoService = pedidoService;
         this.clienteService = clienteService;
-        this.cepApi = cepApi;
+        this.pedidoEventosService = pedidoEventosService;
     }
 
     @GetMapping
@@ -36,26 +41,42 @@ public class PedidoController extends CommonController {
 
 
     @GetMapping("/detalhe/{cpf}")
-    public String detalhes(@PathVariable("cpf") String cpf, Model model) {
+    public String detalhes(@PathVariable("cpf") String cpf,
+                           @RequestParam(name = "cursor", required = false) String cursor,
+                           ServletWebRequest request,
+                           Model model) {
         final Cliente cliente = this.clienteService.findById(cpf);
         if (cliente.getNome() != null) {
-            final CepDetails cepDetails = this.cepApi.get(cliente.getCep());
-            model.addAttribute("cliente", ClienteDto.from(cliente, cepDetails));
-
-            final List<Pedido> pedidos = this.pedidoService.findByClienteCpf(cpf);
-            model.addAttribute("pedidos", PedidoOutputDto.from(pedidos));
+            // Cliente vem do cache L2: sem mudancas, responde 304 sem consultar os pedidos
+            if (naoModificado(request, cliente.getVersao())) {
+                return null;
+            }
+            // Endereco ja gravado no cliente: a unica consulta da pagina e a lista de pedidos
+            model.addAttribute("cliente", ClienteDto.from(cliente));
+
+            final Window<PedidoListagem> pagina = this.pedidoService.findByClienteCpf(cliente.getCpf(), CursorUtils.decode(cursor));
+            model.addAttribute("pedidos", pagina.map(PedidoOutputDto::from).getContent());
+            model.addAttribute("cursor", cursor);
+            model.addAttribute("proximoCursor", pagina.hasNext() && !pagina.isEmpty()
+                    ? CursorUtils.encode(pagina.getContent().getLast().id())
+                    : null);
 
             return "detalhe-pedidos";
         }
         return "redirect:/cliente/detalhes/" + cpf;
     }
 
+    // Atualizacoes ao vivo da pagina de detalhe, sem recarregar cliente e lista
+    @GetMapping(path = "/detalhe/{cpf}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter eventos(@PathVariable("cpf") String cpf) {
+        // Os eventos chegam com o CPF normalizado
+        return this.pedidoEventosService.inscrever(CpfUtils.normalizar(cpf));
+    }
+
     @PostMapping("/novo")
     public String novo(Model model, String cpf) {
-        final Cliente cliente = this.clienteService.findById(cpf);
-        final CepDetails cepDetails = this.cepApi.get(cliente.getCep());
-
-        final ClienteDto client = ClienteDto.from(cliente, cepDetails);
+        final ClienteDto client = ClienteDto.from(this.clienteService.findById(cpf));
         model.addAttribute("cliente", client);
 
         PedidoInputDto pedido = new PedidoInputDto();
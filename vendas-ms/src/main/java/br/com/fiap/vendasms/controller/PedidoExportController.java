@@ -0,0 +1,150 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.dto.PedidoOutputDto;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import br.com.fiap.vendasms.service.PedidoService;
+import br.com.fiap.vendasms.utils.CpfUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Exportacao de pedidos para o financeiro, por cliente ou por status.
+ * <p>
+ * As linhas sao escritas direto na resposta conforme as paginas do banco sao lidas, entao o
+ * consumo de memoria nao depende do tamanho da exportacao. Cada download tem o proprio
+ * timeout ({@code pedidos.exportacao.timeout}) no lugar do padrao das respostas assincronas.
+ */
+@RestController
+@RequestMapping("/pedidos/exportar")
+public class PedidoExportController {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final PedidoService pedidoService;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public PedidoExportController(PedidoService pedidoService, ObjectMapper objectMapper,
+                                  @Value("${pedidos.exportacao.timeout:PT10M}") Duration timeout) {
+        this.pedidoService = pedidoService;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /**
+     * CSV com cabecalho e {@code ;} como separador: {@code id;cpf;nome;status;descricao}. Nao e o
+     * formato da importacao em lote ({@code cpf;descricao[;status]}); campos com {@code ;}, aspas ou
+     * quebra de linha vao entre aspas, e os que a planilha leria como formula ganham um {@code '} na frente.
+     */
+    @GetMapping(produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> csv(@RequestParam(required = false) String cpf,
+                                                     @RequestParam(required = false) Pedido.Status status,
+                                                     HttpServletRequest request) {
+        validarFiltro(cpf, status);
+        return anexo(request, "pedidos.csv", TEXT_CSV, writer -> {
+            writer.write("id;cpf;nome;status;descricao\n");
+            this.pedidoService.exportar(cpf, status, pedido -> escrever(writer, linhaCsv(pedido)));
+        });
+    }
+
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> ndjson(@RequestParam(required = false) String cpf,
+                                                        @RequestParam(required = false) Pedido.Status status,
+                                                        HttpServletRequest request) {
+        validarFiltro(cpf, status);
+        return anexo(request, "pedidos.ndjson", APPLICATION_NDJSON, writer ->
+                this.pedidoService.exportar(cpf, status, pedido -> {
+                    try {
+                        escrever(writer, this.objectMapper.writeValueAsString(PedidoOutputDto.from(pedido)) + "\n");
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> filtroInvalido(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+    }
+
+    private static void validarFiltro(String cpf, Pedido.Status status) {
+        if ((cpf == null || cpf.isBlank()) == (status == null)) {
+            throw new IllegalArgumentException("Informe o cpf ou o status dos pedidos");
+        }
+        if (cpf != null) {
+            // Valida antes da resposta comecar a ser escrita
+            CpfUtils.normalizar(cpf);
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> anexo(HttpServletRequest request, String arquivo, MediaType tipo,
+                                                        Exportacao exportacao) {
+        // Vale so para esta resposta: a requisicao assincrona comeca depois, com este timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(this.timeout.toMillis());
+        final StreamingResponseBody body = out -> {
+            // O buffer agrupa as linhas em blocos; o flush final envia o restante
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            exportacao.escrever(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .contentType(tipo)
+                .body(body);
+    }
+
+    static String linhaCsv(PedidoListagem pedido) {
+        return String.join(";",
+                pedido.id().toString(),
+                pedido.cpf(),
+                campoCsv(pedido.nome()),
+                pedido.status().name(),
+                campoCsv(pedido.descricao())) + "\n";
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        // O arquivo e aberto numa planilha: "=HYPERLINK(...)" numa descricao viraria formula
+        if (!valor.isEmpty() && "=+-@\t\r".indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        if (valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private static void escrever(Writer writer, String linha) {
+        try {
+            writer.write(linha);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Exportacao {
+        void escrever(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.dto.LoteResultadoDto;
+import br.com.fiap.vendasms.dto.PedidoInputDto;
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.service.PedidoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importacao de pedidos em lote (ex.: pedidos do dia vindos do marketplace).
+ */
+@RestController
+@RequestMapping("/pedidos/lote")
+public class PedidoLoteController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PedidoLoteController.class);
+
+    private final PedidoService pedidoService;
+
+    public PedidoLoteController(PedidoService pedidoService) {
+        this.pedidoService = pedidoService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public LoteResultadoDto importar(@RequestBody List<PedidoInputDto> pedidos) {
+        final List<Pedido> entidades = new ArrayList<>(pedidos.size());
+        for (int i = 0; i < pedidos.size(); i++) {
+            entidades.add(toEntity(pedidos.get(i), "item " + (i + 1)));
+        }
+        return new LoteResultadoDto(this.pedidoService.saveAll(entidades, i -> "item " + (i + 1)));
+    }
+
+    /**
+     * CSV separado por ponto e virgula: {@code cpf;descricao[;status]}, cabecalho opcional.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public LoteResultadoDto importarCsv(@RequestParam("arquivo") MultipartFile arquivo) throws IOException {
+        final List<Pedido> pedidos = new ArrayList<>();
+        final List<String> origens = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            int numero = 0;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                if (linha.isBlank() || linha.startsWith("cpf;")) {
+                    continue;
+                }
+                final String[] campos = linha.split(";", -1);
+                final PedidoInputDto pedido = new PedidoInputDto();
+                pedido.setCpf(campos[0].strip());
+                pedido.setDescricao(campos.length > 1 ? campos[1] : null);
+                pedido.setStatus(campos.length > 2 ? campos[2].strip() : null);
+                origens.add("linha " + numero);
+                pedidos.add(toEntity(pedido, origens.getLast()));
+            }
+        }
+        return new LoteResultadoDto(this.pedidoService.saveAll(pedidos, origens::get));
+    }
+
+    // CPF ou status invalidos e clientes nao cadastrados: a mensagem ja traz a linha (CSV) ou o item (JSON)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> loteInvalido(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("erro", "Lote rejeitado: " + e.getMessage()));
+    }
+
+    // Demais constraints do banco (ex.: descricao longa demais) so aparecem no flush do lote. A mensagem
+    // do driver traz tabela e valores: fica no log, nao na resposta
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> loteInconsistente(DataIntegrityViolationException e) {
+        LOGGER.warn("Lote de pedidos rejeitado pelo banco: {}", e.getMostSpecificCause().getMessage());
+        return ResponseEntity.badRequest().body(Map.of("erro", "Lote rejeitado: dado invalido para o banco"));
+    }
+
+    private static Pedido toEntity(PedidoInputDto pedido, String origem) {
+        try {
+            return new Pedido(null,
+                    new Cliente(pedido.getCpf()),
+                    status(pedido.getStatus()),
+                    pedido.getDescricao());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(origem + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Pedido.Status status(String status) {
+        if (status == null || status.isBlank()) {
+            return Pedido.Status.PENDENTE_ENVIO;
+        }
+        try {
+            return Pedido.Status.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("status invalido: " + status);
+        }
+    }
+}
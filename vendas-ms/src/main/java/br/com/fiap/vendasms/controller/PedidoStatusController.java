@@ -0,0 +1,46 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.dto.StatusResumoDto;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.service.PedidoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Transicoes de status dos pedidos e o painel de quantidade/idade por status.
+ */
+@RestController
+@RequestMapping("/pedidos")
+public class PedidoStatusController {
+
+    private final PedidoService pedidoService;
+
+    public PedidoStatusController(PedidoService pedidoService) {
+        this.pedidoService = pedidoService;
+    }
+
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<Void> alterarStatus(@PathVariable("id") UUID id, @RequestParam Pedido.Status status) {
+        this.pedidoService.alterarStatus(id, status);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/status/resumo")
+    public List<StatusResumoDto> resumo() {
+        final Instant agora = Instant.now();
+        return this.pedidoService.resumoPorStatus().stream()
+                .map(resumo -> StatusResumoDto.from(resumo, agora))
+                .toList();
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> pedidoInexistente(NoSuchElementException e) {
+        return ResponseEntity.status(404).body(Map.of("erro", e.getMessage()));
+    }
+}
@@ -2,6 +2,7 @@ package br.com.fiap.vendasms.dto;
 
 import br.com.fiap.vendasms.entities.Cliente;
 import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.utils.CpfUtils;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.io.Serializable;
@@ -25,23 +26,10 @@ public record ClienteDto(String cpf, String nome, String cep, String numero, Str
                 cliente.getNumero(),
                 cliente.getCompleto(),
                 cliente.getTelefone(),
-                null,
-                null,
-                null,
-                null);
-    }
-
-    public static ClienteDto from(Cliente cliente,CepDetails cepDetails) {
-        return new ClienteDto(cliente.getCpf(),
-                cliente.getNome(),
-                cliente.getCep(),
-                cliente.getNumero(),
-                cliente.getCompleto(),
-                cliente.getTelefone(),
-                cepDetails.logradouro(),
-                cepDetails.bairro(),
-                cepDetails.localidade(),
-                cepDetails.estado());
+                cliente.getLogradouro(),
+                cliente.getBairro(),
+                cliente.getLocalidade(),
+                cliente.getEstado());
     }
 
     public ClienteDto enrichWith(CepDetails cepDetails){
@@ -53,6 +41,11 @@ public record ClienteDto(String cpf, String nome, String cep, String numero, Str
                 cepDetails.localidade(),cepDetails.estado());
     }
 
+    // Para exibicao: 000.000.000-00
+    public String cpfFormatado() {
+        return cpf == null ? null : CpfUtils.formatar(cpf);
+    }
+
     public Cliente toEntity() {
         return new Cliente(cpf,nome,cep,numero,complemento,telefone);
     }
@@ -0,0 +1,16 @@
+package br.com.fiap.vendasms.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progresso de uma importacao de clientes. As contagens avancam conforme cada fase do
+ * pipeline (LEITURA, CEP, GRAVACAO) processa as linhas; {@code erros} traz no maximo as
+ * primeiras 100 linhas rejeitadas.
+ */
+public record ClienteImportacaoDto(UUID id, String fase,
+                                   long linhas, long invalidas, long duplicadas,
+                                   long ceps, long cepsConsultados, long cepsSemEndereco,
+                                   long inseridos, long atualizados,
+                                   double linhasPorSegundo, List<String> erros) {
+}
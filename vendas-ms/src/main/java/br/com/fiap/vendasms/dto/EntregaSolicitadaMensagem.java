@@ -0,0 +1,10 @@
+package br.com.fiap.vendasms.dto;
+
+import java.util.UUID;
+
+/**
+ * Mensagem enviada ao entregas-ms. O {@code pedidoId} vira o id da entrega, o que torna
+ * o consumo idempotente caso a mesma mensagem seja entregue mais de uma vez.
+ */
+public record EntregaSolicitadaMensagem(UUID pedidoId, String destinatario, String enderecoCompleto) {
+}
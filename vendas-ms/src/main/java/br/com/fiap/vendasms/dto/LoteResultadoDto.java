@@ -0,0 +1,4 @@
+package br.com.fiap.vendasms.dto;
+
+public record LoteResultadoDto(int importados) {
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.vendasms.dto;
+
+import java.util.List;
+
+/**
+ * Pagina da busca de pedidos; {@code proximoCursor} e nulo na ultima pagina.
+ */
+public record PedidoBuscaDto(List<PedidoOutputDto> pedidos, String proximoCursor) {
+}
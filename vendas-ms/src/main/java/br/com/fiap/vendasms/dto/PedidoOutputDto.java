@@ -1,6 +1,7 @@
 package br.com.fiap.vendasms.dto;
 
 import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.io.Serializable;
@@ -23,6 +24,17 @@ public record PedidoOutputDto(UUID id, ClienteDto cliente, String status, String
         );
     }
 
+    // Converte linha da listagem (pedido + cliente numa unica consulta) → DTO
+    public static PedidoOutputDto from(PedidoListagem pedido) {
+        return new PedidoOutputDto(
+                pedido.id(),
+                new ClienteDto(pedido.cpf(), pedido.nome(), pedido.cep(), pedido.numero(), pedido.completo(),
+                        pedido.telefone(), null, null, null, null),
+                pedido.status().name(),
+                pedido.descricao()
+        );
+    }
+
     // Converte lista de entidades → lista de DTOs
     public static List<PedidoOutputDto> from(List<Pedido> pedidos) {
         return pedidos.stream().map(PedidoOutputDto::from).toList();
@@ -0,0 +1,13 @@
+package br.com.fiap.vendasms.dto;
+
+import br.com.fiap.vendasms.repositories.projections.StatusResumo;
+
+import java.time.Instant;
+
+public record StatusResumoDto(String status, long quantidade, long idadeMediaSegundos) {
+
+    public static StatusResumoDto from(StatusResumo resumo, Instant agora) {
+        return new StatusResumoDto(resumo.status().name(), resumo.quantidade(),
+                resumo.idadeMedia(agora).toSeconds());
+    }
+}
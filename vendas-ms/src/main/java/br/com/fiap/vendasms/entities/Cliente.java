@@ -1,26 +1,54 @@
 package br.com.fiap.vendasms.entities;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import br.com.fiap.vendasms.utils.CpfUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
+import java.time.Instant;
+import java.util.Objects;
+
+// Lido em quase toda pagina e raramente alterado: fica no cache de segundo nivel (regiao "clientes")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
 public class Cliente {
 
+    // CPF como numero: BIGINT na PK e na FK de pedido. getId() e o getter do identificador,
+    // respondido pelo proxy de getReference sem SELECT; getCpf() devolve os 11 digitos e carrega o proxy
     @Id
-    private String cpf;
+    @Column(name = "cpf")
+    private Long id;
 
     private String nome, cep, numero, completo, telefone;
 
+    // Endereco resolvido pelo CEP no cadastro (e renovado pelo ClienteEnderecoRefresher):
+    // as paginas nao dependem do ViaCEP para exibi-lo
+    private String logradouro, bairro, localidade, estado;
+
+    // Renovar so a data da consulta nao muda a pagina: nao incrementa a versao
+    @OptimisticLock(excluded = true)
+    private Instant enderecoAtualizadoEm;
+
+    // Incrementada a cada alteracao do cliente ou dos seus pedidos; base dos ETags das paginas
+    @Version
+    private Long versao;
+
     public Cliente() {
         super();
     }
 
     public Cliente(String cpf) {
-        this.cpf = cpf;
+        this.id = CpfUtils.paraNumero(cpf);
     }
 
     public Cliente(String cpf, String nome, String cep, String numero, String completo, String telefone) {
-        this.cpf = cpf;
+        this.id = CpfUtils.paraNumero(cpf);
         this.nome = nome;
         this.cep = cep;
         this.numero = numero;
@@ -28,12 +56,40 @@ public class Cliente {
         this.telefone = telefone;
     }
 
+    public void atualizarDados(Cliente dados) {
+        if (!Objects.equals(this.cep, dados.cep)) {
+            atualizarEndereco(null, null, null, null, null);
+        }
+        this.nome = dados.nome;
+        this.cep = dados.cep;
+        this.numero = dados.numero;
+        this.completo = dados.completo;
+        this.telefone = dados.telefone;
+    }
+
+    public void atualizarEndereco(String logradouro, String bairro, String localidade, String estado, Instant em) {
+        this.logradouro = logradouro;
+        this.bairro = bairro;
+        this.localidade = localidade;
+        this.estado = estado;
+        this.enderecoAtualizadoEm = em;
+    }
+
+    // Consulta sem resultado: mantem o endereco atual e so registra quando tentar de novo
+    public void adiarEndereco(Instant em) {
+        this.enderecoAtualizadoEm = em;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
     public String getCpf() {
-        return cpf;
+        return id == null ? null : CpfUtils.deNumero(id);
     }
 
     public void setCpf(String cpf) {
-        this.cpf = cpf;
+        this.id = CpfUtils.paraNumero(cpf);
     }
 
     public String getNome() {
@@ -75,4 +131,28 @@ public class Cliente {
     public void setTelefone(String telefone) {
         this.telefone = telefone;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public String getLogradouro() {
+        return logradouro;
+    }
+
+    public String getBairro() {
+        return bairro;
+    }
+
+    public String getLocalidade() {
+        return localidade;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public Instant getEnderecoAtualizadoEm() {
+        return enderecoAtualizadoEm;
+    }
 }
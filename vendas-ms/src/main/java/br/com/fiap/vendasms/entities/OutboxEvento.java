@@ -0,0 +1,60 @@
+package br.com.fiap.vendasms.entities;
+
+import br.com.fiap.vendasms.utils.UuidV7Generator;
+import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "outbox_evento")
+public class OutboxEvento {
+
+    public static final String PEDIDO_CRIADO = "PEDIDO_CRIADO";
+
+    // UUIDv7 mantem a ordem de criacao e, ao contrario de IDENTITY, permite insert em lote
+    @Id
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    private UUID agregadoId;
+
+    private String tipo;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    private Instant criadoEm;
+
+    public OutboxEvento() {
+    }
+
+    public OutboxEvento(UUID agregadoId, String tipo, String payload) {
+        this.agregadoId = agregadoId;
+        this.tipo = tipo;
+        this.payload = payload;
+        this.criadoEm = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getAgregadoId() {
+        return agregadoId;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.fiap.vendasms.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Evento retirado da outbox por nao poder ser publicado; guarda o original e o motivo
+@Entity
+@Table(name = "outbox_evento_falha")
+public class OutboxEventoFalha {
+
+    private static final int TAMANHO_ERRO = 1000;
+
+    @Id
+    private UUID id;
+
+    private UUID agregadoId;
+
+    private String tipo;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    private Instant criadoEm;
+
+    @Column(length = TAMANHO_ERRO)
+    private String erro;
+
+    private Instant falhouEm;
+
+    public OutboxEventoFalha() {
+    }
+
+    public OutboxEventoFalha(OutboxEvento evento, String erro) {
+        this.id = evento.getId();
+        this.agregadoId = evento.getAgregadoId();
+        this.tipo = evento.getTipo();
+        this.payload = evento.getPayload();
+        this.criadoEm = evento.getCriadoEm();
+        this.erro = erro.length() > TAMANHO_ERRO ? erro.substring(0, TAMANHO_ERRO) : erro;
+        this.falhouEm = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getAgregadoId() {
+        return agregadoId;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public Instant getFalhouEm() {
+        return falhouEm;
+    }
+}
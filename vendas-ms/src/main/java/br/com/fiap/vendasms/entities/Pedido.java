@@ -1,14 +1,19 @@
 package br.com.fiap.vendasms.entities;
 
+import br.com.fiap.vendasms.utils.UuidV7Generator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 public class Pedido {
 
+    // UUIDv7: ids crescentes no tempo, inseridos no fim do indice da PK
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @ManyToOne
@@ -18,6 +23,9 @@ public class Pedido {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // Entrada no status atual; base para a idade em pedido_status_resumo
+    private Instant statusDesde;
+
     private String descricao;
 
     public Pedido() {
@@ -27,6 +35,7 @@ public class Pedido {
         this.id = id;
         this.cliente = entity;
         this.status = status;
+        this.statusDesde = Instant.now();
         this.descricao = descricao;
     }
 
@@ -60,6 +69,14 @@ public class Pedido {
         this.status = status;
     }
 
+    public Instant getStatusDesde() {
+        return statusDesde;
+    }
+
+    public void setStatusDesde(Instant statusDesde) {
+        this.statusDesde = statusDesde;
+    }
+
     public String getDescricao() {
         return descricao;
     }
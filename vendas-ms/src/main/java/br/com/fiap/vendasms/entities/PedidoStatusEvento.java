@@ -0,0 +1,64 @@
+package br.com.fiap.vendasms.entities;
+
+import br.com.fiap.vendasms.utils.UuidV7Generator;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Transicao de status de um pedido. Linhas so sao inseridas, nunca alteradas.
+ */
+@Entity
+@Immutable
+@Table(name = "pedido_status_evento")
+public class PedidoStatusEvento {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    private UUID pedidoId;
+
+    // Nulo na criacao do pedido
+    @Enumerated(EnumType.STRING)
+    private Pedido.Status statusAnterior;
+
+    @Enumerated(EnumType.STRING)
+    private Pedido.Status statusNovo;
+
+    private Instant ocorridoEm;
+
+    public PedidoStatusEvento() {
+    }
+
+    public PedidoStatusEvento(UUID pedidoId, Pedido.Status statusAnterior, Pedido.Status statusNovo, Instant ocorridoEm) {
+        this.pedidoId = pedidoId;
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+        this.ocorridoEm = ocorridoEm;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getPedidoId() {
+        return pedidoId;
+    }
+
+    public Pedido.Status getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public Pedido.Status getStatusNovo() {
+        return statusNovo;
+    }
+
+    public Instant getOcorridoEm() {
+        return ocorridoEm;
+    }
+}
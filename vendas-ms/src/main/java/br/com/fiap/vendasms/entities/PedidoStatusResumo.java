@@ -0,0 +1,53 @@
+package br.com.fiap.vendasms.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Parte (slot) da contagem de pedidos em um status, mantida incrementalmente a cada transicao
+ * (ver PedidoServiceImpl#acumularResumo). Cada transacao soma em um slot sorteado, para que
+ * pedidos simultaneos no mesmo status nao disputem uma unica linha; o total do status e a soma
+ * dos slots, e um slot isolado pode ficar negativo. Somente leitura pelo JPA.
+ */
+@Entity
+@Immutable
+@IdClass(PedidoStatusResumo.Chave.class)
+@Table(name = "pedido_status_resumo")
+public class PedidoStatusResumo {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Pedido.Status status;
+
+    @Id
+    private int slot;
+
+    private long quantidade;
+
+    // Soma dos instantes (epoch em segundos) em que os pedidos atuais entraram no status
+    private long somaDesdeEpoch;
+
+    public PedidoStatusResumo() {
+    }
+
+    public Pedido.Status getStatus() {
+        return status;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public long getSomaDesdeEpoch() {
+        return somaDesdeEpoch;
+    }
+
+    public record Chave(Pedido.Status status, int slot) implements Serializable {
+    }
+}
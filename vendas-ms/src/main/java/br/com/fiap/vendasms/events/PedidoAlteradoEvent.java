@@ -0,0 +1,19 @@
+package br.com.fiap.vendasms.events;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.utils.CpfUtils;
+
+import java.util.UUID;
+
+/**
+ * Pedido criado ou com status alterado. Publicado dentro da transacao; os ouvintes
+ * interessados apenas no resultado usam {@code @TransactionalEventListener}.
+ */
+public record PedidoAlteradoEvent(UUID pedidoId, String cpf, Pedido.Status status, String descricao) {
+
+    // O cliente pode ser uma referencia nao carregada: so o identificador, sem SELECT
+    public static PedidoAlteradoEvent from(Pedido pedido) {
+        return new PedidoAlteradoEvent(pedido.getId(), CpfUtils.deNumero(pedido.getCliente().getId()), pedido.getStatus(),
+                pedido.getDescricao());
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.vendasms.events;
+
+import java.util.UUID;
+
+/**
+ * Payload gravado na outbox quando um pedido e criado.
+ */
+public record PedidoCriadoEvento(UUID pedidoId, String cpf, String descricao) {
+}
@@ -0,0 +1,10 @@
+package br.com.fiap.vendasms.events;
+
+import java.util.List;
+
+/**
+ * Pedidos gravados juntos (importacao em lote). Um unico evento por lote, em vez de um
+ * {@link PedidoAlteradoEvent} por pedido, para registrar uma so sincronizacao na transacao.
+ */
+public record PedidosAlteradosEvent(List<PedidoAlteradoEvent> pedidos) {
+}
@@ -0,0 +1,7 @@
+package br.com.fiap.vendasms.events;
+
+/**
+ * Publicado quando os papeis de um usuario mudam, para descartar as autoridades em cache.
+ */
+public record UsuarioRolesAlteradosEvent(String login) {
+}
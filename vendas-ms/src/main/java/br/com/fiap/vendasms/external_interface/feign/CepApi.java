@@ -4,7 +4,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-@FeignClient(name = "cep-api", url = "https://viacep.com.br/ws")
+@FeignClient(name = "cep-api", url = "${cep-api.url:https://viacep.com.br/ws}")
 public interface CepApi {
 
     @GetMapping("/{cep}/json")
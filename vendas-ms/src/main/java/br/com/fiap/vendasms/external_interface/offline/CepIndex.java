@@ -0,0 +1,130 @@
+package br.com.fiap.vendasms.external_interface.offline;
+
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Indice offline de CEPs lido de um arquivo binario mapeado em memoria.
+ * <p>
+ * Layout do arquivo (big-endian), gerado pelo {@link CepIndexWriter}:
+ * <pre>
+ * int magic | int versao | int quantidade
+ * int[quantidade] ceps ordenados
+ * int[quantidade] offset de cada registro na area de dados
+ * dados: por registro, logradouro, bairro, localidade e estado como [short tamanho][bytes UTF-8]
+ * </pre>
+ * As leituras sao absolutas sobre o buffer mapeado, entao a instancia pode ser
+ * compartilhada entre threads sem sincronizacao.
+ */
+public final class CepIndex {
+
+    static final int MAGIC = 0x43455058; // "CEPX"
+    static final int VERSAO = 1;
+    static final int HEADER_BYTES = 12;
+
+    private final MappedByteBuffer buffer;
+    private final int quantidade;
+    private final int offsetsInicio;
+    private final int dadosInicio;
+
+    private CepIndex(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSAO) {
+            throw new IllegalArgumentException("Arquivo nao e um indice de CEP valido");
+        }
+        this.quantidade = buffer.getInt(8);
+        this.offsetsInicio = HEADER_BYTES + quantidade * Integer.BYTES;
+        this.dadosInicio = offsetsInicio + quantidade * Integer.BYTES;
+    }
+
+    public static CepIndex open(Path arquivo) throws IOException {
+        try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Indice de CEP maior que 2GB nao e suportado");
+            }
+            return new CepIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return quantidade;
+    }
+
+    /**
+     * @return os detalhes do CEP ou {@code null} quando o CEP nao esta no indice
+     */
+    public CepDetails get(String cep) {
+        final int chave = toKey(cep);
+        if (chave < 0) {
+            return null;
+        }
+        final int posicao = buscar(chave);
+        if (posicao < 0) {
+            return null;
+        }
+        int offset = dadosInicio + buffer.getInt(offsetsInicio + posicao * Integer.BYTES);
+        final String[] campos = new String[4];
+        for (int i = 0; i < campos.length; i++) {
+            final int tamanho = Short.toUnsignedInt(buffer.getShort(offset));
+            final byte[] bytes = new byte[tamanho];
+            buffer.get(offset + Short.BYTES, bytes);
+            campos[i] = tamanho == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+            offset += Short.BYTES + tamanho;
+        }
+        return new CepDetails(format(chave), campos[0], campos[1], campos[2], campos[3]);
+    }
+
+    private int buscar(int chave) {
+        int inicio = 0;
+        int fim = quantidade - 1;
+        while (inicio <= fim) {
+            final int meio = (inicio + fim) >>> 1;
+            final int atual = buffer.getInt(HEADER_BYTES + meio * Integer.BYTES);
+            if (atual < chave) {
+                inicio = meio + 1;
+            } else if (atual > chave) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converte o CEP em sua chave numerica de 8 digitos, ou -1 quando o CEP e invalido.
+     */
+    static int toKey(String cep) {
+        if (cep == null) {
+            return -1;
+        }
+        int chave = 0;
+        int digitos = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            final char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                chave = chave * 10 + (c - '0');
+                digitos++;
+            } else if (c != '-' && c != '.' && c != ' ') {
+                return -1;
+            }
+        }
+        return digitos == 8 ? chave : -1;
+    }
+
+    static String format(int chave) {
+        final String digitos = String.format("%08d", chave);
+        return digitos.substring(0, 5) + "-" + digitos.substring(5);
+    }
+
+    static ByteBuffer header(int quantidade) {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSAO).putInt(quantidade).flip();
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.fiap.vendasms.external_interface.offline;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Importa um dump CSV de CEPs para o arquivo binario lido pelo {@link CepIndex}.
+ * <p>
+ * Formato esperado do CSV (separado por ponto e virgula, cabecalho opcional):
+ * {@code cep;logradouro;bairro;localidade;estado}
+ * <p>
+ * Uso: {@code java -cp vendas-ms.jar br.com.fiap.vendasms.external_interface.offline.CepIndexWriter ceps.csv ceps.idx}
+ */
+public final class CepIndexWriter {
+
+    // Cada campo e gravado com o tamanho em 2 bytes (lido sem sinal pelo CepIndex)
+    private static final int MAXIMO_BYTES_CAMPO = 0xFFFF;
+    private static final String[] CAMPOS = {"cep", "logradouro", "bairro", "localidade", "estado"};
+
+    private CepIndexWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: CepIndexWriter <ceps.csv> <ceps.idx>");
+            System.exit(1);
+        }
+        final int quantidade = importar(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(quantidade + " CEPs importados para " + args[1]);
+    }
+
+    public static int importar(Path csv, Path destino) throws IOException {
+        final List<Registro> registros = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                final String[] campos = linha.split(";", -1);
+                final int chave = CepIndex.toKey(campos[0]);
+                if (chave < 0 || campos.length < 5) {
+                    // cabecalho ou linha invalida
+                    continue;
+                }
+                // Um campo maior que o prefixo de tamanho corromperia o indice: o dump e rejeitado
+                for (int i = 1; i < 5; i++) {
+                    if (campos[i].strip().getBytes(StandardCharsets.UTF_8).length > MAXIMO_BYTES_CAMPO) {
+                        throw new IllegalArgumentException("linha " + numero + ": campo " + CAMPOS[i]
+                                + " excede " + MAXIMO_BYTES_CAMPO + " bytes");
+                    }
+                }
+                registros.add(new Registro(chave, campos[1], campos[2], campos[3], campos[4]));
+            }
+        }
+        registros.sort(Comparator.comparingInt(Registro::chave));
+
+        final List<Registro> unicos = new ArrayList<>(registros.size());
+        for (Registro registro : registros) {
+            if (unicos.isEmpty() || unicos.getLast().chave() != registro.chave()) {
+                unicos.add(registro);
+            }
+        }
+
+        final ByteArrayOutputStream dados = new ByteArrayOutputStream();
+        final DataOutputStream dadosOut = new DataOutputStream(dados);
+        final int[] offsets = new int[unicos.size()];
+        for (int i = 0; i < unicos.size(); i++) {
+            final Registro registro = unicos.get(i);
+            offsets[i] = dadosOut.size();
+            escrever(dadosOut, registro.logradouro());
+            escrever(dadosOut, registro.bairro());
+            escrever(dadosOut, registro.localidade());
+            escrever(dadosOut, registro.estado());
+        }
+
+        try (OutputStream arquivo = new BufferedOutputStream(Files.newOutputStream(destino));
+             DataOutputStream out = new DataOutputStream(arquivo)) {
+            out.write(CepIndex.header(unicos.size()).array());
+            for (Registro registro : unicos) {
+                out.writeInt(registro.chave());
+            }
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            dados.writeTo(out);
+        }
+        return unicos.size();
+    }
+
+    private static void escrever(DataOutputStream out, String valor) throws IOException {
+        final byte[] bytes = valor == null ? new byte[0] : valor.strip().getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private record Registro(int chave, String logradouro, String bairro, String localidade, String estado) {
+    }
+}
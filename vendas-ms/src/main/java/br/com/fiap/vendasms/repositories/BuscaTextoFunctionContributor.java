@@ -0,0 +1,25 @@
+package br.com.fiap.vendasms.repositories;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Funcao HQL {@code contem_texto(coluna, frase)}: relevancia maior que zero quando a coluna contem
+ * a frase. No MySQL vira {@code MATCH ... AGAINST} em modo booleano e usa o indice FULLTEXT; nos
+ * demais bancos (H2 dos testes) cai para um LIKE sem indice com a mesma semantica de frase.
+ */
+public class BuscaTextoFunctionContributor implements FunctionContributor {
+
+    public static final String CONTEM_TEXTO = "contem_texto";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        final String padrao = functionContributions.getDialect() instanceof MySQLDialect
+                ? "match(?1) against(concat('\"', ?2, '\"') in boolean mode)"
+                : "case when lower(?1) like concat('%', lower(?2), '%') then 1 else 0 end";
+        functionContributions.getFunctionRegistry().registerPattern(CONTEM_TEXTO, padrao,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -1,7 +1,20 @@
 package br.com.fiap.vendasms.repositories;
 
 import br.com.fiap.vendasms.entities.Cliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ClienteRepository extends JpaRepository<Cliente, String> {
-}
\ No newline at end of file
+import java.time.Instant;
+import java.util.List;
+
+public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+
+    // Clientes com CEP cujo endereco nunca foi resolvido ou foi resolvido antes do limite, mais antigos primeiro
+    @Query("""
+            select c from Cliente c
+            where c.cep is not null and c.cep <> '' and (c.enderecoAtualizadoEm is null or c.enderecoAtualizadoEm < :limite)
+            order by c.enderecoAtualizadoEm""")
+    List<Cliente> findEnderecosVencidos(@Param("limite") Instant limite, Limit limit);
+}
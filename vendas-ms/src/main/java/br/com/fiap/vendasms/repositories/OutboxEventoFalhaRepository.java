@@ -0,0 +1,9 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.OutboxEventoFalha;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface OutboxEventoFalhaRepository extends JpaRepository<OutboxEventoFalha, UUID> {
+}
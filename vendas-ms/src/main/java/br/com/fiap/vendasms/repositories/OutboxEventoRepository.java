@@ -0,0 +1,23 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.OutboxEvento;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, UUID> {
+
+    // SKIP LOCKED permite mais de uma instancia drenando a outbox sem enviar o mesmo evento duas vezes
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM outbox_evento
+            ORDER BY id
+            LIMIT :lote
+            FOR UPDATE SKIP LOCKED""")
+    List<OutboxEvento> travarProximos(int lote);
+
+    // Leitura sem trava dos proximos eventos, para preparar o lote antes da transacao
+    List<OutboxEvento> findAllByOrderByIdAsc(Limit limit);
+}
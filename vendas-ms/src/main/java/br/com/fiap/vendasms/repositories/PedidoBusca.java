@@ -0,0 +1,19 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca de pedidos com filtros opcionais. A consulta e montada so com os filtros informados
+ * para que o MySQL escolha o indice certo (composto por status/cliente ou FULLTEXT na descricao).
+ */
+public interface PedidoBusca {
+
+    /**
+     * Pedidos em ordem de id apos {@code depoisDe} ({@code null} para o inicio); filtros nulos sao ignorados.
+     */
+    List<PedidoListagem> buscar(String texto, Pedido.Status status, Long cpf, UUID depoisDe, int limite);
+}
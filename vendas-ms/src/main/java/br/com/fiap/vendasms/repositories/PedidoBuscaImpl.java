@@ -0,0 +1,53 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class PedidoBuscaImpl implements PedidoBusca {
+
+    private static final String LISTAGEM = """
+            select new br.com.fiap.vendasms.repositories.projections.PedidoListagem(
+                p.id, p.status, p.descricao, c.id, c.nome, c.cep, c.numero, c.completo, c.telefone)
+            from Pedido p join p.cliente c""";
+
+    private final EntityManager entityManager;
+
+    PedidoBuscaImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PedidoListagem> buscar(String texto, Pedido.Status status, Long cpf, UUID depoisDe, int limite) {
+        final StringBuilder jpql = new StringBuilder(LISTAGEM).append(" where 1 = 1");
+        final Map<String, Object> parametros = new LinkedHashMap<>();
+        if (texto != null) {
+            jpql.append(" and ").append(BuscaTextoFunctionContributor.CONTEM_TEXTO).append("(p.descricao, :texto) > 0");
+            parametros.put("texto", texto);
+        }
+        if (status != null) {
+            jpql.append(" and p.status = :status");
+            parametros.put("status", status);
+        }
+        if (cpf != null) {
+            // Pela FK do pedido, para o indice (status, cliente_id) ser usado direto
+            jpql.append(" and p.cliente.id = :cpf");
+            parametros.put("cpf", cpf);
+        }
+        if (depoisDe != null) {
+            jpql.append(" and p.id > :depoisDe");
+            parametros.put("depoisDe", depoisDe);
+        }
+        jpql.append(" order by p.id");
+
+        final TypedQuery<PedidoListagem> query = this.entityManager.createQuery(jpql.toString(), PedidoListagem.class);
+        parametros.forEach(query::setParameter);
+        return query.setMaxResults(limite).getResultList();
+    }
+}
@@ -1,12 +1,33 @@
 package br.com.fiap.vendasms.repositories;
 
 import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.UUID;
 
-public interface PedidoRepository extends JpaRepository<Pedido, UUID> {
+public interface PedidoRepository extends JpaRepository<Pedido, UUID>, PedidoBusca {
 
-    List<Pedido> findByCliente_Cpf(String cpf);
-}
\ No newline at end of file
+    List<Pedido> findByCliente_Id(Long cpf);
+
+    // Paginacao por keyset (where id > :depoisDe order by id limit n), sem COUNT(*).
+    // Pedido e cliente vem no mesmo select, sem a busca extra do @ManyToOne eager.
+    @Query("""
+            select new br.com.fiap.vendasms.repositories.projections.PedidoListagem(
+                p.id, p.status, p.descricao, c.id, c.nome, c.cep, c.numero, c.completo, c.telefone)
+            from Pedido p join p.cliente c
+            where c.id = :cpf
+            order by p.id""")
+    List<PedidoListagem> listarPorCliente(Long cpf, Limit limit);
+
+    @Query("""
+            select new br.com.fiap.vendasms.repositories.projections.PedidoListagem(
+                p.id, p.status, p.descricao, c.id, c.nome, c.cep, c.numero, c.completo, c.telefone)
+            from Pedido p join p.cliente c
+            where c.id = :cpf and p.id > :depoisDe
+            order by p.id""")
+    List<PedidoListagem> listarPorCliente(Long cpf, UUID depoisDe, Limit limit);
+}
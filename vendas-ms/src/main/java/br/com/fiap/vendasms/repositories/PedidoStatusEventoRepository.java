@@ -0,0 +1,12 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.PedidoStatusEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PedidoStatusEventoRepository extends JpaRepository<PedidoStatusEvento, UUID> {
+
+    List<PedidoStatusEvento> findByPedidoIdOrderById(UUID pedidoId);
+}
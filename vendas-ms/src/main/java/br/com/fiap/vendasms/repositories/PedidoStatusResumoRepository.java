@@ -0,0 +1,43 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.entities.PedidoStatusResumo;
+import br.com.fiap.vendasms.repositories.projections.StatusResumo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+public interface PedidoStatusResumoRepository extends JpaRepository<PedidoStatusResumo, PedidoStatusResumo.Chave> {
+
+    @Query("""
+            select new br.com.fiap.vendasms.repositories.projections.StatusResumo(
+                r.status, sum(r.quantidade), sum(r.somaDesdeEpoch))
+            from PedidoStatusResumo r
+            group by r.status
+            order by r.status""")
+    List<StatusResumo> totalPorStatus();
+
+    // Soma a um slot do status; valores negativos retiram pedidos dele.
+    // Sem declarar a tabela afetada, o Hibernate invalidaria todo o cache de segundo nivel
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "pedido_status_resumo"))
+    @Query(nativeQuery = true, value = """
+            UPDATE pedido_status_resumo
+            SET quantidade = quantidade + :quantidade,
+                soma_desde_epoch = soma_desde_epoch + :somaDesdeEpoch
+            WHERE status = :status AND slot = :slot""")
+    int somar(String status, int slot, long quantidade, long somaDesdeEpoch);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "pedido_status_resumo"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO pedido_status_resumo (status, slot, quantidade, soma_desde_epoch)
+            VALUES (:status, :slot, 0, 0)""")
+    void criar(String status, int slot);
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.vendasms.repositories.projections;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.utils.CpfUtils;
+
+import java.util.UUID;
+
+/**
+ * Linha da listagem de pedidos com os dados do cliente, lida numa unica consulta.
+ */
+public record PedidoListagem(UUID id, Pedido.Status status, String descricao,
+                             String cpf, String nome, String cep, String numero,
+                             String completo, String telefone) {
+
+    // Usado pelas consultas: o CPF vem do banco como numero
+    public PedidoListagem(UUID id, Pedido.Status status, String descricao,
+                          Long cpf, String nome, String cep, String numero,
+                          String completo, String telefone) {
+        this(id, status, descricao, CpfUtils.deNumero(cpf), nome, cep, numero, completo, telefone);
+    }
+}
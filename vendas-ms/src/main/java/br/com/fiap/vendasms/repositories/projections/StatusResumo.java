@@ -0,0 +1,19 @@
+package br.com.fiap.vendasms.repositories.projections;
+
+import br.com.fiap.vendasms.entities.Pedido;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Total de um status: soma dos slots de pedido_status_resumo.
+ */
+public record StatusResumo(Pedido.Status status, long quantidade, long somaDesdeEpoch) {
+
+    public Duration idadeMedia(Instant agora) {
+        if (quantidade == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofSeconds(agora.getEpochSecond() - somaDesdeEpoch / quantidade);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface CepService {
+
+    /**
+     * Consulta os detalhes do CEP, servindo do cache local sempre que possivel.
+     *
+     * @return os detalhes do CEP ou {@code null} quando o CEP nao existe ou o ViaCEP
+     * esta indisponivel (circuito aberto, bulkhead cheio ou falha na chamada)
+     */
+    CepDetails get(String cep);
+
+    /**
+     * Versao assincrona de {@link #get(String)}. Consultas concorrentes ao mesmo CEP
+     * compartilham a mesma chamada em andamento ao ViaCEP.
+     */
+    CompletableFuture<CepDetails> getAsync(String cep);
+}
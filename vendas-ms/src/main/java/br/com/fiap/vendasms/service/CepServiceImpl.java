@@ -0,0 +1,127 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.external_interface.feign.CepApi;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.external_interface.offline.CepIndex;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Service
+final class CepServiceImpl implements CepService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CepServiceImpl.class);
+
+    private final CepApi cepApi;
+    private final Optional<CepIndex> cepIndex;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    // Optional.empty() representa um CEP inexistente (cache negativo).
+    // O AsyncCache guarda o CompletableFuture em andamento, entao consultas
+    // concorrentes ao mesmo CEP aguardam a mesma chamada (single-flight).
+    private final AsyncCache<String, Optional<CepDetails>> cache;
+
+    public CepServiceImpl(CepApi cepApi,
+                          Optional<CepIndex> cepIndex,
+                          CircuitBreaker cepCircuitBreaker,
+                          Bulkhead cepBulkhead,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("cepExecutor") Executor cepExecutor,
+                          @Value("${cep.cache.maximum-size:100000}") long maximumSize,
+                          @Value("${cep.cache.ttl:P7D}") Duration ttl,
+                          @Value("${cep.cache.negative-ttl:PT1H}") Duration negativeTtl) {
+        this.cepApi = cepApi;
+        this.cepIndex = cepIndex;
+        this.circuitBreaker = cepCircuitBreaker;
+        this.bulkhead = cepBulkhead;
+        this.cache = Caffeine.newBuilder()
+                .executor(cepExecutor)
+                .maximumSize(maximumSize)
+                .expireAfter(new CepExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), "cep");
+    }
+
+    @Override
+    public CepDetails get(String cep) {
+        return getAsync(cep).join();
+    }
+
+    @Override
+    public CompletableFuture<CepDetails> getAsync(String cep) {
+        final String chave = normalizar(cep);
+        if (chave.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // O indice offline, quando configurado, dispensa o cache e o ViaCEP
+        final CepDetails offline = this.cepIndex.map(index -> index.get(chave)).orElse(null);
+        if (offline != null) {
+            return CompletableFuture.completedFuture(offline);
+        }
+        final CompletableFuture<Optional<CepDetails>> consulta = this.cache.get(chave,
+                (key, executor) -> CompletableFuture.supplyAsync(() -> consultar(key), executor));
+        return consulta
+                .thenApply(cepDetails -> cepDetails.orElse(null))
+                // Falhas nao ficam no cache; a pagina segue sem o endereco enriquecido
+                .exceptionally(e -> {
+                    this.cache.asMap().remove(chave, consulta);
+                    LOGGER.warn("Consulta do CEP {} indisponivel: {}", chave, e.getMessage());
+                    return null;
+                });
+    }
+
+    private Optional<CepDetails> consultar(String cep) {
+        try {
+            // Bulkhead por fora: fila cheia e espera por permissao sao carga local, nao falha nem
+            // lentidao do ViaCEP, e nao podem contar para abrir o circuito
+            final CepDetails cepDetails = this.bulkhead.executeSupplier(
+                    () -> this.circuitBreaker.executeSupplier(() -> this.cepApi.get(cep)));
+            // ViaCEP responde {"erro": true} para CEPs validos porem inexistentes
+            if (cepDetails == null || cepDetails.cep() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(cepDetails);
+        } catch (FeignException.BadRequest | FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    static String normalizar(String cep) {
+        return cep == null ? "" : cep.replaceAll("\\D", "");
+    }
+
+    private record CepExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<CepDetails>> {
+
+        @Override
+        public long expireAfterCreate(String cep, Optional<CepDetails> cepDetails, long currentTime) {
+            return (cepDetails.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String cep, Optional<CepDetails> cepDetails, long currentTime, long currentDuration) {
+            return expireAfterCreate(cep, cepDetails, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String cep, Optional<CepDetails> cepDetails, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
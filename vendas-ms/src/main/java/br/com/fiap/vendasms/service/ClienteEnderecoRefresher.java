@@ -0,0 +1,82 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Mantem o endereco gravado nos clientes: resolve os que ficaram sem endereco (ViaCEP
+ * indisponivel no cadastro, clientes anteriores a coluna) e reconsulta os que passaram da
+ * validade. A gravacao passa pelo Hibernate, entao o cache de segundo nivel e a versao
+ * (ETags das paginas) acompanham a mudanca.
+ */
+@Component
+class ClienteEnderecoRefresher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClienteEnderecoRefresher.class);
+
+    private final ClienteRepository clienteRepository;
+    private final CepService cepService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration validade;
+    private final Duration retentativa;
+    private final int tamanhoLote;
+
+    public ClienteEnderecoRefresher(ClienteRepository clienteRepository,
+                                    CepService cepService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${clientes.endereco.validade:P30D}") Duration validade,
+                                    @Value("${clientes.endereco.retentativa:PT1H}") Duration retentativa,
+                                    @Value("${clientes.endereco.lote:200}") int tamanhoLote) {
+        this.clienteRepository = clienteRepository;
+        this.cepService = cepService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validade = validade;
+        this.retentativa = retentativa;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${clientes.endereco.intervalo:PT10M}",
+            initialDelayString = "${clientes.endereco.intervalo:PT10M}")
+    public void atualizarVencidos() {
+        final Instant agora = Instant.now();
+        final List<Cliente> vencidos = this.clienteRepository
+                .findEnderecosVencidos(agora.minus(this.validade), Limit.of(this.tamanhoLote));
+        int resolvidos = 0;
+        for (Cliente cliente : vencidos) {
+            // Uma consulta por vez e fora da transacao: nao disputa o bulkhead com as paginas
+            // nem segura conexao do pool enquanto espera o ViaCEP
+            final CepDetails endereco = this.cepService.get(cliente.getCep());
+            if (endereco != null) {
+                resolvidos++;
+            }
+            this.transactionTemplate.executeWithoutResult(tx -> this.clienteRepository.findById(cliente.getId())
+                    // CEP alterado no meio do caminho: o saveOrUpdate ja cuidou do endereco
+                    .filter(atual -> cliente.getCep().equals(atual.getCep()))
+                    .ifPresent(atual -> {
+                        if (endereco != null) {
+                            atual.atualizarEndereco(endereco.logradouro(), endereco.bairro(),
+                                    endereco.localidade(), endereco.estado(), agora);
+                        } else {
+                            // Sem resposta: volta a fila depois da retentativa, sem travar o restante do lote
+                            atual.adiarEndereco(agora.minus(this.validade).plus(this.retentativa));
+                        }
+                    }));
+        }
+        if (!vencidos.isEmpty()) {
+            LOGGER.info("Enderecos de clientes renovados: {} de {}", resolvidos, vencidos.size());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.dto.ClienteImportacaoDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ClienteImportacaoService {
+
+    /**
+     * Le e valida o CSV ({@code cpf;nome;cep;numero;complemento;telefone}, cabecalho opcional)
+     * e segue em segundo plano com a consulta dos CEPs e a gravacao em lotes.
+     *
+     * @return o estado da importacao apos a leitura; acompanhar com {@link #progresso(UUID)}
+     */
+    ClienteImportacaoDto importar(InputStream csv) throws IOException;
+
+    /**
+     * @return o estado da importacao, ou vazio se ela nao existir ou ja tiver expirado
+     */
+    Optional<ClienteImportacaoDto> progresso(UUID id);
+}
@@ -0,0 +1,348 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.dto.ClienteImportacaoDto;
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.utils.CpfUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Pipeline da importacao: leitura e validacao do CSV, deduplicacao por CPF (vale a ultima
+ * linha), consulta dos CEPs distintos com paralelismo limitado (o endereco resolvido e gravado
+ * junto do cliente) e gravacao em lotes JDBC com INSERT ... ON DUPLICATE KEY UPDATE. Como a
+ * gravacao nao passa pelo Hibernate, os clientes do lote sao removidos do cache de segundo nivel
+ * apos cada lote.
+ */
+@Service
+class ClienteImportacaoServiceImpl implements ClienteImportacaoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClienteImportacaoServiceImpl.class);
+    private static final int MAXIMO_ERROS = 100;
+
+    // Colunas do upsert: dados do CSV e endereco resolvido na fase de CEP
+    private static final List<String> DADOS = List.of("nome", "cep", "numero", "completo", "telefone");
+    private static final List<String> ENDERECO = List.of("logradouro", "bairro", "localidade", "estado");
+
+    // CEP sem resposta do ViaCEP e igual ao gravado: o endereco ja resolvido e mantido
+    private static final String MANTER_ENDERECO =
+            "coalesce(values(logradouro), '') = '' and coalesce(cep, '') = coalesce(values(cep), '')";
+
+    // A versao (ETag das paginas) so sobe se algum dado visivel mudou. Ela vem primeiro, e o endereco
+    // antes do cep, porque o MySQL aplica as atribuicoes em ordem, ja com os valores novos das anteriores
+    private static final String UPSERT = """
+            insert into cliente (cpf, nome, cep, numero, completo, telefone, logradouro, bairro,
+                localidade, estado, endereco_atualizado_em, versao)
+            values (:cpf, :nome, :cep, :numero, :completo, :telefone, :logradouro, :bairro,
+                :localidade, :estado, :enderecoAtualizadoEm, 0)
+            on duplicate key update versao = versao + case when %s then 0 else 1 end,
+                %s, endereco_atualizado_em = %s, %s""".formatted(
+            Stream.concat(DADOS.stream().map(coluna -> igual(coluna, "values(" + coluna + ")")),
+                            ENDERECO.stream().map(coluna -> igual(coluna, novoEndereco(coluna))))
+                    .collect(Collectors.joining(" and ")),
+            ENDERECO.stream().map(coluna -> coluna + " = " + novoEndereco(coluna)).collect(Collectors.joining(", ")),
+            novoEndereco("endereco_atualizado_em"),
+            DADOS.stream().map(coluna -> coluna + " = values(" + coluna + ")").collect(Collectors.joining(", ")));
+
+    private final CepService cepService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final int paralelismoCep;
+    private final int tamanhoLote;
+    private final Cache<UUID, Importacao> importacoes;
+
+    public ClienteImportacaoServiceImpl(CepService cepService,
+                                        NamedParameterJdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        EntityManagerFactory entityManagerFactory,
+                                        MeterRegistry meterRegistry,
+                                        @Qualifier("importacaoExecutor") Executor executor,
+                                        @Value("${clientes.importacao.cep-paralelismo:8}") int paralelismoCep,
+                                        @Value("${clientes.importacao.lote:500}") int tamanhoLote,
+                                        @Value("${clientes.importacao.retencao:PT24H}") Duration retencao) {
+        this.cepService = cepService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.paralelismoCep = paralelismoCep;
+        this.tamanhoLote = tamanhoLote;
+        this.importacoes = Caffeine.newBuilder().expireAfterWrite(retencao).build();
+    }
+
+    @Override
+    public ClienteImportacaoDto importar(InputStream csv) throws IOException {
+        final Importacao importacao = new Importacao();
+        this.importacoes.put(importacao.id, importacao);
+        final List<Cliente> clientes = medir("leitura", () -> ler(csv, importacao));
+        importacao.fase = "CEP";
+        this.executor.execute(() -> processar(importacao, clientes));
+        return importacao.dto();
+    }
+
+    @Override
+    public Optional<ClienteImportacaoDto> progresso(UUID id) {
+        return Optional.ofNullable(this.importacoes.getIfPresent(id)).map(Importacao::dto);
+    }
+
+    private List<Cliente> ler(InputStream csv, Importacao importacao) throws IOException {
+        final Map<Long, Cliente> porCpf = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String linha;
+            int numero = 0;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                if (linha.isBlank() || linha.startsWith("cpf;")) {
+                    continue;
+                }
+                importacao.linhas.incrementAndGet();
+                final String[] campos = linha.split(";", -1);
+                final String erro = validar(campos);
+                if (erro != null) {
+                    importacao.rejeitar(numero, erro);
+                    contar("invalida");
+                    continue;
+                }
+                final String cep = campo(campos, 2);
+                final Cliente cliente = new Cliente(campos[0], campos[1].strip(),
+                        cep == null ? null : cep.replaceAll("\\D", ""),
+                        campo(campos, 3), campo(campos, 4), campo(campos, 5));
+                if (porCpf.put(cliente.getId(), cliente) != null) {
+                    importacao.duplicadas.incrementAndGet();
+                    contar("duplicada");
+                }
+            }
+        }
+        return new ArrayList<>(porCpf.values());
+    }
+
+    private static String validar(String[] campos) {
+        if (!CpfUtils.valido(campos[0])) {
+            return "CPF invalido";
+        }
+        if (campos.length < 2 || campos[1].isBlank()) {
+            return "nome obrigatorio";
+        }
+        final String cep = campo(campos, 2);
+        if (cep != null && !cep.replaceAll("\\D", "").matches("\\d{8}")) {
+            return "CEP invalido";
+        }
+        return null;
+    }
+
+    private static String campo(String[] campos, int indice) {
+        return campos.length > indice && !campos[indice].isBlank() ? campos[indice].strip() : null;
+    }
+
+    private void processar(Importacao importacao, List<Cliente> clientes) {
+        try {
+            final Map<String, CepDetails> enderecos = medir("cep", () -> consultarCeps(importacao, clientes));
+            final Instant agora = Instant.now();
+            for (Cliente cliente : clientes) {
+                final CepDetails endereco = cliente.getCep() == null ? null : enderecos.get(cliente.getCep());
+                if (endereco != null) {
+                    cliente.atualizarEndereco(endereco.logradouro(), endereco.bairro(),
+                            endereco.localidade(), endereco.estado(), agora);
+                }
+            }
+            importacao.fase = "GRAVACAO";
+            medir("gravacao", () -> gravar(importacao, clientes));
+            importacao.fase = "CONCLUIDA";
+        } catch (Exception e) {
+            LOGGER.error("Importacao de clientes {} interrompida", importacao.id, e);
+            importacao.rejeitar(0, "importacao interrompida: " + e.getMessage());
+            importacao.fase = "FALHOU";
+        } finally {
+            importacao.fim = System.nanoTime();
+        }
+    }
+
+    // Cada CEP distinto e consultado uma vez; o semaforo deixa o restante do bulkhead do ViaCEP para as paginas
+    private Map<String, CepDetails> consultarCeps(Importacao importacao, List<Cliente> clientes) throws InterruptedException {
+        final Set<String> ceps = new HashSet<>();
+        clientes.stream().map(Cliente::getCep).filter(Objects::nonNull).forEach(ceps::add);
+        importacao.ceps = ceps.size();
+        final Map<String, CepDetails> enderecos = new ConcurrentHashMap<>();
+        final Semaphore permissoes = new Semaphore(this.paralelismoCep);
+        final List<CompletableFuture<?>> consultas = new ArrayList<>(ceps.size());
+        for (String cep : ceps) {
+            permissoes.acquire();
+            consultas.add(this.cepService.getAsync(cep).whenComplete((cepDetails, e) -> {
+                permissoes.release();
+                importacao.cepsConsultados.incrementAndGet();
+                if (cepDetails == null) {
+                    importacao.cepsSemEndereco.incrementAndGet();
+                } else {
+                    enderecos.put(cep, cepDetails);
+                }
+            }));
+        }
+        CompletableFuture.allOf(consultas.toArray(CompletableFuture[]::new)).join();
+        return enderecos;
+    }
+
+    private Void gravar(Importacao importacao, List<Cliente> clientes) {
+        for (int inicio = 0; inicio < clientes.size(); inicio += this.tamanhoLote) {
+            final List<Cliente> lote = clientes.subList(inicio, Math.min(inicio + this.tamanhoLote, clientes.size()));
+            final int atualizados = this.transactionTemplate.execute(tx -> gravarLote(lote));
+            // O lote todo: um cliente criado pelo formulario durante a importacao tambem foi sobrescrito
+            lote.forEach(cliente -> this.entityManagerFactory.getCache().evict(Cliente.class, cliente.getId()));
+            importacao.atualizados.addAndGet(atualizados);
+            importacao.inseridos.addAndGet(lote.size() - atualizados);
+            contar("gravada", lote.size());
+        }
+        return null;
+    }
+
+    // Upsert pela PK: um cliente criado entre a leitura e a gravacao vira UPDATE em vez de derrubar o
+    // lote com chave duplicada. A contagem de existentes so alimenta o progresso (o driver nao informa
+    // linhas por item com rewriteBatchedStatements).
+    private int gravarLote(List<Cliente> lote) {
+        final List<Long> cpfs = lote.stream().map(Cliente::getId).toList();
+        final int existentes = this.jdbcTemplate.queryForObject(
+                "select count(*) from cliente where cpf in (:cpfs)", Map.of("cpfs", cpfs), Integer.class);
+        this.jdbcTemplate.batchUpdate(UPSERT, lote.stream().map(ClienteImportacaoServiceImpl::parametros).toArray(Map[]::new));
+        return existentes;
+    }
+
+    private static String novoEndereco(String coluna) {
+        return "case when " + MANTER_ENDERECO + " then " + coluna + " else values(" + coluna + ") end";
+    }
+
+    private static String igual(String coluna, String novo) {
+        return "coalesce(" + coluna + ", '') = coalesce(" + novo + ", '')";
+    }
+
+    private static Map<String, Object> parametros(Cliente cliente) {
+        final Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("cpf", cliente.getId());
+        parametros.put("nome", cliente.getNome());
+        parametros.put("cep", cliente.getCep());
+        parametros.put("numero", cliente.getNumero());
+        parametros.put("completo", cliente.getCompleto());
+        parametros.put("telefone", cliente.getTelefone());
+        parametros.put("logradouro", cliente.getLogradouro());
+        parametros.put("bairro", cliente.getBairro());
+        parametros.put("localidade", cliente.getLocalidade());
+        parametros.put("estado", cliente.getEstado());
+        parametros.put("enderecoAtualizadoEm", cliente.getEnderecoAtualizadoEm() == null
+                ? null : Timestamp.from(cliente.getEnderecoAtualizadoEm()));
+        return parametros;
+    }
+
+    private <T> T medir(String fase, Etapa<T> etapa) throws IOException {
+        final Timer.Sample inicio = Timer.start(this.meterRegistry);
+        try {
+            return etapa.executar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            inicio.stop(Timer.builder("vendas.clientes.importacao.fase")
+                    .description("Duracao de cada fase da importacao de clientes")
+                    .tag("fase", fase)
+                    .register(this.meterRegistry));
+        }
+    }
+
+    private void contar(String resultado) {
+        contar(resultado, 1);
+    }
+
+    private void contar(String resultado, int quantidade) {
+        Counter.builder("vendas.clientes.importacao.linhas")
+                .description("Linhas da importacao de clientes por resultado")
+                .tag("resultado", resultado)
+                .register(this.meterRegistry)
+                .increment(quantidade);
+    }
+
+    @FunctionalInterface
+    private interface Etapa<T> {
+        T executar() throws IOException, InterruptedException;
+    }
+
+    // Estado de uma importacao; atualizado pela thread do pipeline e lido pelas consultas de progresso
+    private static final class Importacao {
+
+        private final UUID id = UUID.randomUUID();
+        private final long inicio = System.nanoTime();
+        private final AtomicLong linhas = new AtomicLong();
+        private final AtomicLong invalidas = new AtomicLong();
+        private final AtomicLong duplicadas = new AtomicLong();
+        private final AtomicLong cepsConsultados = new AtomicLong();
+        private final AtomicLong cepsSemEndereco = new AtomicLong();
+        private final AtomicLong inseridos = new AtomicLong();
+        private final AtomicLong atualizados = new AtomicLong();
+        private final List<String> erros = new ArrayList<>();
+        private volatile String fase = "LEITURA";
+        private volatile long ceps;
+        private volatile long fim;
+
+        private void rejeitar(int linha, String motivo) {
+            if (linha > 0) {
+                this.invalidas.incrementAndGet();
+            }
+            synchronized (this.erros) {
+                if (this.erros.size() < MAXIMO_ERROS) {
+                    this.erros.add(linha > 0 ? "linha " + linha + ": " + motivo : motivo);
+                }
+            }
+        }
+
+        private ClienteImportacaoDto dto() {
+            final long gravados = this.inseridos.get() + this.atualizados.get();
+            final long decorrido = (this.fim > 0 ? this.fim : System.nanoTime()) - this.inicio;
+            final List<String> copiaErros;
+            synchronized (this.erros) {
+                copiaErros = List.copyOf(this.erros);
+            }
+            return new ClienteImportacaoDto(this.id, this.fase,
+                    this.linhas.get(), this.invalidas.get(), this.duplicadas.get(),
+                    this.ceps, this.cepsConsultados.get(), this.cepsSemEndereco.get(),
+                    this.inseridos.get(), this.atualizados.get(),
+                    decorrido > 0 ? gravados / (decorrido / 1e9) : 0, copiaErros);
+        }
+    }
+}
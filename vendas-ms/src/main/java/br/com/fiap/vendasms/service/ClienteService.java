@@ -4,7 +4,15 @@ import br.com.fiap.vendasms.entities.Cliente;
 
 public interface ClienteService {
 
+    /**
+     * Aceita o CPF com ou sem pontuacao.
+     *
+     * @throws java.util.NoSuchElementException se o cliente nao existir ou o CPF for invalido
+     */
     Cliente findById(String cpf);
 
+    /**
+     * @throws IllegalArgumentException se os digitos verificadores do CPF nao conferirem
+     */
     void saveOrUpdate(Cliente cliente);
 }
@@ -1,26 +1,71 @@
 package br.com.fiap.vendasms.service;
 
 import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
 import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.utils.CpfUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
 
 @Service
-final class ClienteServiceImpl implements ClienteService {
+class ClienteServiceImpl implements ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final CepService cepService;
+    private final TransactionTemplate transactionTemplate;
 
-    public ClienteServiceImpl(ClienteRepository clienteRepository) {
+    public ClienteServiceImpl(ClienteRepository clienteRepository, CepService cepService,
+                              PlatformTransactionManager transactionManager) {
         this.clienteRepository = clienteRepository;
+        this.cepService = cepService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
     public Cliente findById(String cpf) {
-        return this.clienteRepository.findById(cpf).orElseThrow();
+        final long numero;
+        try {
+            numero = CpfUtils.paraNumero(cpf);
+        } catch (IllegalArgumentException e) {
+            throw new NoSuchElementException(e.getMessage());
+        }
+        return this.clienteRepository.findById(numero).orElseThrow();
     }
 
     @Override
     public void saveOrUpdate(Cliente cliente) {
-        this.clienteRepository.save(cliente);
+        if (!CpfUtils.valido(cliente.getCpf())) {
+            throw new IllegalArgumentException("CPF invalido: " + cliente.getCpf());
+        }
+        // ViaCEP consultado antes da transacao, sem segurar conexao do pool. Sem resposta, o cliente
+        // e gravado sem endereco (ou mantem o atual) e o ClienteEnderecoRefresher tenta depois
+        final CepDetails endereco = cliente.getCep() == null || cliente.getCep().isBlank()
+                ? null
+                : this.cepService.get(cliente.getCep());
+        final Instant agora = Instant.now();
+        this.transactionTemplate.executeWithoutResult(tx -> {
+            // O formulario nao traz a versao: alteracoes sao aplicadas sobre o cliente gerenciado
+            final Cliente existente = this.clienteRepository.findById(cliente.getId()).orElse(null);
+            if (existente != null) {
+                existente.atualizarDados(cliente);
+                atualizarEndereco(existente, endereco, agora);
+            } else {
+                // Endereco aplicado antes do persist: um INSERT so, sem UPDATE logo em seguida
+                atualizarEndereco(cliente, endereco, agora);
+                this.clienteRepository.save(cliente);
+            }
+        });
+    }
+
+    private static void atualizarEndereco(Cliente cliente, CepDetails endereco, Instant agora) {
+        if (endereco != null) {
+            cliente.atualizarEndereco(endereco.logradouro(), endereco.bairro(),
+                    endereco.localidade(), endereco.estado(), agora);
+        }
     }
 
 }
@@ -1,7 +1,14 @@
 package br.com.fiap.vendasms.service;
 
 import br.com.fiap.vendasms.entities.Usuario;
+import br.com.fiap.vendasms.events.UsuarioRolesAlteradosEvent;
 import br.com.fiap.vendasms.repositories.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
@@ -11,16 +18,35 @@ import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
+import java.time.Duration;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public final class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UsuarioRepository usuarioRepository;
 
-    public CustomOAuth2UserService(UsuarioRepository usuarioRepository) {
+    // Autoridades por login do GitHub; evita ir ao MySQL a cada login
+    private final Cache<String, Set<GrantedAuthority>> authorities;
+
+    // ROLE_ADMIN vem da configuracao de cada ambiente, nao de uma migracao
+    private final Set<String> admins;
+
+    public CustomOAuth2UserService(UsuarioRepository usuarioRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${usuarios.roles.cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${usuarios.roles.cache.ttl:PT10M}") Duration ttl,
+                                   @Value("${usuarios.admins:}") Set<String> admins) {
         this.usuarioRepository = usuarioRepository;
+        this.admins = admins;
+        this.authorities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.authorities, "usuario-roles");
     }
 
     @Override
@@ -29,10 +55,24 @@ public final class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
         String login = oAuth2User.getAttribute("login");
 
-        Usuario usuario = this.usuarioRepository.findById(login).orElseGet(() -> this.usuarioRepository.save(new Usuario(login)));
-        Set<GrantedAuthority> authorities = new HashSet<>();
-        usuario.getRoles().forEach(role -> authorities.add(new SimpleGrantedAuthority(role)));
+        return new DefaultOAuth2User(authorities(login), oAuth2User.getAttributes(), "login");
+    }
 
-        return new DefaultOAuth2User(authorities, oAuth2User.getAttributes(), "login");
+    Set<GrantedAuthority> authorities(String login) {
+        return this.authorities.get(login, this::carregarAuthorities);
+    }
+
+    @EventListener
+    public void onRolesAlteradas(UsuarioRolesAlteradosEvent event) {
+        this.authorities.invalidate(event.login());
+    }
+
+    private Set<GrantedAuthority> carregarAuthorities(String login) {
+        Usuario usuario = this.usuarioRepository.findById(login).orElseGet(() -> this.usuarioRepository.save(new Usuario(login)));
+        final Stream<String> roles = this.admins.contains(login)
+                ? Stream.concat(usuario.getRoles().stream(), Stream.of("ROLE_ADMIN"))
+                : usuario.getRoles().stream();
+        return roles.map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableSet());
     }
 }
@@ -0,0 +1,225 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.dto.EntregaSolicitadaMensagem;
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.OutboxEvento;
+import br.com.fiap.vendasms.entities.OutboxEventoFalha;
+import br.com.fiap.vendasms.events.PedidoCriadoEvento;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.repositories.OutboxEventoFalhaRepository;
+import br.com.fiap.vendasms.repositories.OutboxEventoRepository;
+import br.com.fiap.vendasms.utils.CpfUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drena a outbox em lotes e publica os eventos no ActiveMQ.
+ * <p>
+ * Cada lote e travado com SKIP LOCKED, enviado numa sessao JMS transacionada (um commit
+ * no broker por lote) e so entao apagado. Se algo falhar antes do commit no banco o lote
+ * e reenviado na proxima rodada (at-least-once); o entregas-ms usa o id do pedido como
+ * id da entrega, entao o efeito final e exatamente uma entrega por pedido.
+ * <p>
+ * Eventos que nunca poderao ser publicados (payload ilegivel, cliente inexistente) vao para
+ * outbox_evento_falha na mesma transacao, em vez de derrubar o lote e bloquear a outbox.
+ * Enderecos ainda nao gravados no cliente sao resolvidos no ViaCEP antes de travar o lote.
+ */
+@Component
+class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventoRepository outboxRepository;
+    private final OutboxEventoFalhaRepository falhaRepository;
+    private final ClienteRepository clienteRepository;
+    private final CepService cepService;
+    private final ConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String fila;
+    private final int tamanhoLote;
+
+    public OutboxRelay(OutboxEventoRepository outboxRepository,
+                       OutboxEventoFalhaRepository falhaRepository,
+                       ClienteRepository clienteRepository,
+                       CepService cepService,
+                       ConnectionFactory connectionFactory,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.fila:entregas.solicitadas}") String fila,
+                       @Value("${outbox.relay.lote:200}") int tamanhoLote) {
+        this.outboxRepository = outboxRepository;
+        this.falhaRepository = falhaRepository;
+        this.clienteRepository = clienteRepository;
+        this.cepService = cepService;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fila = fila;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.intervalo:PT1S}")
+    public void publicarPendentes() {
+        Integer publicados;
+        do {
+            final List<OutboxEvento> proximos = this.outboxRepository.findAllByOrderByIdAsc(Limit.of(this.tamanhoLote));
+            if (proximos.isEmpty()) {
+                return;
+            }
+            final Map<String, CepDetails> enderecos = enderecosNaoGravados(proximos);
+            publicados = this.transactionTemplate.execute(status -> publicarLote(enderecos));
+        } while (publicados != null && publicados == this.tamanhoLote);
+    }
+
+    // Fora da transacao: o lote nao fica travado (nem segura conexao) esperando o ViaCEP.
+    // Eventos travados depois por esta instancia que nao estavam aqui seguem sem o endereco enriquecido
+    private Map<String, CepDetails> enderecosNaoGravados(List<OutboxEvento> eventos) {
+        final List<Long> cpfs = new ArrayList<>();
+        for (OutboxEvento evento : eventos) {
+            try {
+                cpfs.add(CpfUtils.paraNumero(ler(evento).cpf()));
+            } catch (IllegalArgumentException e) {
+                // Tratado ao publicar o lote
+            }
+        }
+        final Map<String, CepDetails> enderecos = new HashMap<>();
+        for (Cliente cliente : this.clienteRepository.findAllById(cpfs.stream().distinct().toList())) {
+            if (cliente.getLogradouro() == null && cliente.getCep() != null && !cliente.getCep().isBlank()
+                    && !enderecos.containsKey(cliente.getCep())) {
+                enderecos.put(cliente.getCep(), this.cepService.get(cliente.getCep()));
+            }
+        }
+        return enderecos;
+    }
+
+    private int publicarLote(Map<String, CepDetails> enderecos) {
+        final List<OutboxEvento> eventos = this.outboxRepository.travarProximos(this.tamanhoLote);
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        final Map<OutboxEvento, PedidoCriadoEvento> pedidos = new LinkedHashMap<>();
+        for (OutboxEvento evento : eventos) {
+            try {
+                pedidos.put(evento, ler(evento));
+            } catch (IllegalArgumentException e) {
+                descartar(evento, e.getMessage());
+            }
+        }
+        final Map<String, Cliente> clientes = this.clienteRepository
+                .findAllById(pedidos.values().stream().map(pedido -> CpfUtils.paraNumero(pedido.cpf())).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Cliente::getCpf, Function.identity()));
+
+        final List<OutboxEvento> publicados = new ArrayList<>(pedidos.size());
+        final List<String> mensagens = new ArrayList<>(pedidos.size());
+        pedidos.forEach((evento, pedido) -> {
+            final Cliente cliente = clientes.get(CpfUtils.normalizar(pedido.cpf()));
+            if (cliente == null) {
+                // Sem destinatario nao ha entrega possivel: nao publica mensagem incompleta
+                descartar(evento, "cliente " + pedido.cpf() + " nao encontrado");
+                return;
+            }
+            publicados.add(evento);
+            mensagens.add(escrever(entregaSolicitada(pedido, cliente, enderecos)));
+        });
+        if (!publicados.isEmpty()) {
+            enviar(publicados, mensagens);
+        }
+
+        this.outboxRepository.deleteAllInBatch(eventos);
+        LOGGER.debug("{} eventos da outbox publicados em {}", publicados.size(), this.fila);
+        return eventos.size();
+    }
+
+    private void descartar(OutboxEvento evento, String erro) {
+        LOGGER.error("Evento {} da outbox movido para outbox_evento_falha: {}", evento.getId(), erro);
+        this.falhaRepository.save(new OutboxEventoFalha(evento, erro));
+    }
+
+    private void enviar(List<OutboxEvento> eventos, List<String> mensagens) {
+        try (Connection connection = this.connectionFactory.createConnection();
+             Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+             MessageProducer producer = session.createProducer(session.createQueue(this.fila))) {
+            for (int i = 0; i < eventos.size(); i++) {
+                final TextMessage message = session.createTextMessage(mensagens.get(i));
+                message.setStringProperty("eventoId", eventos.get(i).getId().toString());
+                message.setStringProperty("tipo", eventos.get(i).getTipo());
+                producer.send(message);
+            }
+            session.commit();
+        } catch (JMSException e) {
+            throw new IllegalStateException("Falha ao publicar eventos da outbox", e);
+        }
+    }
+
+    private EntregaSolicitadaMensagem entregaSolicitada(PedidoCriadoEvento pedido, Cliente cliente,
+                                                        Map<String, CepDetails> enderecos) {
+        // Endereco gravado no cliente ou, enquanto ele nao foi resolvido, o consultado antes do lote
+        final CepDetails cep = cliente.getLogradouro() != null
+                ? new CepDetails(cliente.getCep(), cliente.getLogradouro(), cliente.getBairro(),
+                        cliente.getLocalidade(), cliente.getEstado())
+                : enderecos.get(cliente.getCep());
+        final StringBuilder endereco = new StringBuilder();
+        if (cep != null) {
+            endereco.append(cep.logradouro()).append(", ");
+        }
+        endereco.append(cliente.getNumero());
+        if (cliente.getCompleto() != null && !cliente.getCompleto().isBlank()) {
+            endereco.append(" - ").append(cliente.getCompleto());
+        }
+        if (cep != null) {
+            endereco.append(", ").append(cep.bairro())
+                    .append(", ").append(cep.localidade())
+                    .append("/").append(cep.estado());
+        }
+        endereco.append(" - CEP ").append(cliente.getCep());
+        return new EntregaSolicitadaMensagem(pedido.pedidoId(), cliente.getNome(), endereco.toString());
+    }
+
+    // Payload ilegivel ou com CPF invalido: IllegalArgumentException com o motivo
+    private PedidoCriadoEvento ler(OutboxEvento evento) {
+        final PedidoCriadoEvento pedido;
+        try {
+            pedido = this.objectMapper.readValue(evento.getPayload(), PedidoCriadoEvento.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("payload invalido: " + e.getOriginalMessage());
+        }
+        if (pedido.pedidoId() == null) {
+            throw new IllegalArgumentException("payload sem pedidoId");
+        }
+        CpfUtils.paraNumero(pedido.cpf());
+        return pedido;
+    }
+
+    private String escrever(EntregaSolicitadaMensagem mensagem) {
+        try {
+            return this.objectMapper.writeValueAsString(mensagem);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
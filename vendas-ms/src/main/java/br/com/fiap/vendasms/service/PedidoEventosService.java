@@ -0,0 +1,12 @@
+package br.com.fiap.vendasms.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface PedidoEventosService {
+
+    /**
+     * Abre um stream Server-Sent Events com os pedidos do cliente que forem criados ou
+     * alterados a partir de agora (evento {@code pedido}, corpo {@code PedidoOutputDto}).
+     */
+    SseEmitter inscrever(String cpf);
+}
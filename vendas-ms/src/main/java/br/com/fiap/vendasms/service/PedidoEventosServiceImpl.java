@@ -0,0 +1,151 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.dto.ClienteDto;
+import br.com.fiap.vendasms.dto.PedidoOutputDto;
+import br.com.fiap.vendasms.events.PedidoAlteradoEvent;
+import br.com.fiap.vendasms.events.PedidosAlteradosEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Registro dos streams SSE abertos, por CPF. Conexoes abertas nao prendem threads (servlet
+ * async); os envios rodam em virtual threads para nao atrasar a transacao que gerou o evento.
+ * Cada CPF tem uma fila drenada por uma tarefa de cada vez: os eventos de um pedido (criacao,
+ * A->B, B->C) chegam ao navegador na ordem em que foram publicados.
+ */
+@Service
+final class PedidoEventosServiceImpl implements PedidoEventosService {
+
+    private final ConcurrentMap<String, Inscricao> inscritos = new ConcurrentHashMap<>();
+    private final Executor sseExecutor;
+    private final long timeout;
+
+    public PedidoEventosServiceImpl(@Qualifier("sseExecutor") Executor sseExecutor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${pedidos.sse.timeout:PT30M}") Duration timeout) {
+        this.sseExecutor = sseExecutor;
+        this.timeout = timeout.toMillis();
+        Gauge.builder("vendas.sse.conexoes", this.inscritos,
+                        inscritos -> inscritos.values().stream().mapToInt(inscricao -> inscricao.emitters.size()).sum())
+                .description("Streams SSE de pedidos abertos")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter inscrever(String cpf) {
+        final SseEmitter emitter = new SseEmitter(this.timeout);
+        this.inscritos.compute(cpf, (chave, inscricao) -> {
+            final Inscricao doCliente = inscricao != null ? inscricao : new Inscricao();
+            doCliente.emitters.add(emitter);
+            return doCliente;
+        });
+        final Runnable remover = () -> this.inscritos.computeIfPresent(cpf, (chave, inscricao) -> {
+            inscricao.emitters.remove(emitter);
+            return inscricao.emitters.isEmpty() ? null : inscricao;
+        });
+        emitter.onCompletion(remover);
+        emitter.onTimeout(remover);
+        emitter.onError(e -> remover.run());
+        return emitter;
+    }
+
+    // Somente apos o commit: o navegador nunca ve um pedido que acabou em rollback
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidoAlterado(PedidoAlteradoEvent evento) {
+        final Inscricao inscricao = this.inscritos.get(evento.cpf());
+        if (inscricao != null) {
+            enfileirar(inscricao, List.of(evento(evento)));
+        }
+    }
+
+    // Lote: so os pedidos de CPFs com stream aberto, enfileirados de uma vez por cliente
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPedidosAlterados(PedidosAlteradosEvent eventos) {
+        final Map<String, List<SseEmitter.SseEventBuilder>> porCliente = new HashMap<>();
+        for (PedidoAlteradoEvent evento : eventos.pedidos()) {
+            if (this.inscritos.containsKey(evento.cpf())) {
+                porCliente.computeIfAbsent(evento.cpf(), cpf -> new ArrayList<>()).add(evento(evento));
+            }
+        }
+        porCliente.forEach((cpf, doCliente) -> {
+            final Inscricao inscricao = this.inscritos.get(cpf);
+            if (inscricao != null) {
+                enfileirar(inscricao, doCliente);
+            }
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder evento(PedidoAlteradoEvent evento) {
+        final PedidoOutputDto pedido = new PedidoOutputDto(evento.pedidoId(), ClienteDto.empty(evento.cpf()),
+                evento.status().name(), evento.descricao());
+        return SseEmitter.event()
+                .name("pedido")
+                .id(evento.pedidoId().toString())
+                .data(pedido, MediaType.APPLICATION_JSON);
+    }
+
+    // Mantem proxies e balanceadores com a conexao aberta e descobre clientes que ja sairam
+    @Scheduled(fixedDelayString = "${pedidos.sse.heartbeat:PT25S}")
+    public void heartbeat() {
+        this.inscritos.values().forEach(inscricao -> enfileirar(inscricao, List.of(SseEmitter.event().comment("ping"))));
+    }
+
+    // Quem encontra a fila parada agenda a drenagem; quem encontra uma tarefa ativa so acrescenta
+    private void enfileirar(Inscricao inscricao, List<SseEmitter.SseEventBuilder> eventos) {
+        inscricao.pendentes.addAll(eventos);
+        if (inscricao.drenando.compareAndSet(false, true)) {
+            this.sseExecutor.execute(() -> drenar(inscricao));
+        }
+    }
+
+    private void drenar(Inscricao inscricao) {
+        do {
+            SseEmitter.SseEventBuilder evento;
+            while ((evento = inscricao.pendentes.poll()) != null) {
+                enviar(inscricao.emitters, evento);
+            }
+            inscricao.drenando.set(false);
+            // Evento enfileirado entre o ultimo poll e a liberacao: esta tarefa continua se ninguem assumiu
+        } while (!inscricao.pendentes.isEmpty() && inscricao.drenando.compareAndSet(false, true));
+    }
+
+    private static void enviar(Collection<SseEmitter> emitters, SseEmitter.SseEventBuilder evento) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(evento);
+            } catch (IOException | IllegalStateException e) {
+                // Conexao encerrada pelo cliente; o callback de conclusao remove o emitter
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class Inscricao {
+
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private final Queue<SseEmitter.SseEventBuilder> pendentes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean drenando = new AtomicBoolean();
+    }
+}
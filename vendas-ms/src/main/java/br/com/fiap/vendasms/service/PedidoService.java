@@ -1,11 +1,66 @@
 package br.com.fiap.vendasms.service;
 
 import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import br.com.fiap.vendasms.repositories.projections.StatusResumo;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 public interface PedidoService {
-    List<Pedido> findByClienteCpf(String cpf);
+
+    /**
+     * Pagina os pedidos do cliente em ordem de id, comecando apos {@code depoisDe}
+     * ({@code null} para a primeira pagina).
+     */
+    Window<PedidoListagem> findByClienteCpf(String cpf, UUID depoisDe);
+
+    /**
+     * Busca pedidos cuja descricao contem {@code texto}, opcionalmente filtrando por status e cliente,
+     * paginada por id como {@link #findByClienteCpf}. Filtros nulos ou em branco sao ignorados.
+     *
+     * @throws IllegalArgumentException se nenhum filtro for informado ou o texto for curto demais
+     */
+    Window<PedidoListagem> buscar(String texto, Pedido.Status status, String cpf, UUID depoisDe);
 
     void save(Pedido pedido);
+
+    /**
+     * Persiste os pedidos em lotes JDBC numa unica transacao.
+     *
+     * @return a quantidade de pedidos gravados
+     * @throws IllegalArgumentException se algum cliente nao estiver cadastrado; nada e gravado
+     */
+    int saveAll(List<Pedido> pedidos);
+
+    /**
+     * Como {@link #saveAll(List)}, com a origem de cada pedido (ex.: linha do arquivo) nas mensagens de erro.
+     *
+     * @param origem recebe o indice do pedido na lista
+     */
+    int saveAll(List<Pedido> pedidos, IntFunction<String> origem);
+
+    /**
+     * Percorre os pedidos do cliente (ou com o status informado, quando {@code cpf} e nulo)
+     * em ordem de id, entregando cada linha ao {@code destino} sem materializar o resultado: le uma
+     * pagina por vez ({@code pedidos.exportacao.pagina}) e nao segura conexao entre as paginas.
+     *
+     * @return a quantidade de pedidos exportados
+     */
+    long exportar(String cpf, Pedido.Status status, Consumer<PedidoListagem> destino);
+
+    /**
+     * Muda o status do pedido, registrando a transicao no historico e no resumo por status.
+     *
+     * @throws java.util.NoSuchElementException se o pedido nao existir
+     */
+    void alterarStatus(UUID id, Pedido.Status novoStatus);
+
+    /**
+     * Quantidade e idade dos pedidos em cada status, lida do resumo mantido a cada transicao.
+     */
+    List<StatusResumo> resumoPorStatus();
 }
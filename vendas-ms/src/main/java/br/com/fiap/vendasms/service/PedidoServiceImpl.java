@@ -1,29 +1,340 @@
 package br.com.fiap.vendasms.service;
 
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.OutboxEvento;
 import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.entities.PedidoStatusEvento;
+import br.com.fiap.vendasms.entities.PedidoStatusResumo;
+import br.com.fiap.vendasms.events.PedidoAlteradoEvent;
+import br.com.fiap.vendasms.events.PedidosAlteradosEvent;
+import br.com.fiap.vendasms.events.PedidoCriadoEvento;
+import br.com.fiap.vendasms.repositories.OutboxEventoRepository;
 import br.com.fiap.vendasms.repositories.PedidoRepository;
+import br.com.fiap.vendasms.repositories.PedidoStatusEventoRepository;
+import br.com.fiap.vendasms.repositories.PedidoStatusResumoRepository;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import br.com.fiap.vendasms.repositories.projections.StatusResumo;
+import br.com.fiap.vendasms.utils.CpfUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 @Service
 class PedidoServiceImpl implements PedidoService {
 
+    private static final int LOTE_VERSOES = 1000;
+    private static final int TAMANHO_MINIMO_TEXTO = 3;
+
     private final PedidoRepository repository;
+    private final OutboxEventoRepository outboxRepository;
+    private final PedidoStatusEventoRepository statusEventoRepository;
+    private final PedidoStatusResumoRepository statusResumoRepository;
+    private final EntityManager entityManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoPagina;
+    private final int tamanhoLote;
+    private final int slotsResumo;
+    private final int paginaExportacao;
 
-    public PedidoServiceImpl(PedidoRepository repository) {
+    public PedidoServiceImpl(PedidoRepository repository,
+                             OutboxEventoRepository outboxRepository,
+                             PedidoStatusEventoRepository statusEventoRepository,
+                             PedidoStatusResumoRepository statusResumoRepository,
+                             EntityManager entityManager,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${pedidos.pagina.tamanho:20}") int tamanhoPagina,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoLote,
+                             @Value("${pedidos.resumo.slots:8}") int slotsResumo,
+                             @Value("${pedidos.exportacao.pagina:1000}") int paginaExportacao) {
         this.repository = repository;
+        this.outboxRepository = outboxRepository;
+        this.statusEventoRepository = statusEventoRepository;
+        this.statusResumoRepository = statusResumoRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoPagina = tamanhoPagina;
+        this.tamanhoLote = tamanhoLote;
+        this.slotsResumo = slotsResumo;
+        this.paginaExportacao = paginaExportacao;
     }
 
     @Override
-    public List<Pedido> findByClienteCpf(String cpf) {
-        return this.repository.findByCliente_Cpf(cpf);
+    public Window<PedidoListagem> findByClienteCpf(String cpf, UUID depoisDe) {
+        // Busca um item a mais apenas para saber se existe proxima pagina
+        final Limit limit = Limit.of(this.tamanhoPagina + 1);
+        final List<PedidoListagem> pedidos = depoisDe == null
+                ? this.repository.listarPorCliente(CpfUtils.paraNumero(cpf), limit)
+                : this.repository.listarPorCliente(CpfUtils.paraNumero(cpf), depoisDe, limit);
+        return janela(pedidos);
+    }
+
+    @Override
+    public Window<PedidoListagem> buscar(String texto, Pedido.Status status, String cpf, UUID depoisDe) {
+        final String frase = texto == null ? null : texto.replace("\"", " ").strip();
+        final boolean semTexto = frase == null || frase.isEmpty();
+        final boolean semCpf = cpf == null || cpf.isBlank();
+        if (semTexto && status == null && semCpf) {
+            throw new IllegalArgumentException("Informe o texto, o status ou o cpf dos pedidos");
+        }
+        // O FULLTEXT do InnoDB ignora palavras com menos de 3 letras (innodb_ft_min_token_size),
+        // e uma frase com uma delas nunca e encontrada: a regra vale para cada palavra
+        if (!semTexto) {
+            for (String palavra : frase.split("\\s+")) {
+                if (palavra.length() < TAMANHO_MINIMO_TEXTO) {
+                    throw new IllegalArgumentException("Cada palavra da busca precisa de ao menos "
+                            + TAMANHO_MINIMO_TEXTO + " letras: " + palavra);
+                }
+            }
+        }
+        return janela(this.repository.buscar(semTexto ? null : frase, status, semCpf ? null : CpfUtils.paraNumero(cpf), depoisDe,
+                this.tamanhoPagina + 1));
+    }
+
+    // Descarta o item extra e indica se ha proxima pagina
+    private Window<PedidoListagem> janela(List<PedidoListagem> pedidos) {
+        final boolean temMais = pedidos.size() > this.tamanhoPagina;
+        final List<PedidoListagem> pagina = temMais ? pedidos.subList(0, this.tamanhoPagina) : pedidos;
+        return Window.from(pagina, i -> ScrollPosition.forward(Map.of("id", pagina.get(i).id())), temMais);
     }
 
     @Override
     @Transactional
     public void save(Pedido pedido) {
+        final String cpf = pedido.getCliente().getCpf();
+        pedido.setCliente(novaVersaoDoCliente(pedido.getCliente().getId()));
         this.repository.save(pedido);
+        // Mesma transacao do pedido; a publicacao no broker fica com o OutboxRelay
+        this.outboxRepository.save(pedidoCriado(pedido, cpf));
+        this.statusEventoRepository.save(statusInicial(pedido));
+        acumularResumo(new EnumMap<>(Map.of(pedido.getStatus(), new long[]{1, pedido.getStatusDesde().getEpochSecond()})));
+        this.eventPublisher.publishEvent(PedidoAlteradoEvent.from(pedido));
+    }
+
+    @Override
+    @Transactional
+    public int saveAll(List<Pedido> pedidos) {
+        return saveAll(pedidos, i -> "pedido " + (i + 1));
+    }
+
+    @Override
+    @Transactional
+    public int saveAll(List<Pedido> pedidos, IntFunction<String> origem) {
+        final List<Long> cpfs = pedidos.stream().map(pedido -> pedido.getCliente().getId()).distinct().sorted().toList();
+        // Clientes conferidos e travados antes do primeiro INSERT: a FK so acusaria o erro no flush, sem a
+        // linha de origem, e a trava compartilhada que ela toma viraria deadlock ao incrementar a versao
+        final Set<Long> cadastrados = travarClientes(cpfs);
+        for (int i = 0; i < pedidos.size(); i++) {
+            final Long cpf = pedidos.get(i).getCliente().getId();
+            if (!cadastrados.contains(cpf)) {
+                throw new IllegalArgumentException(origem.apply(i) + ": cliente " + CpfUtils.deNumero(cpf) + " nao cadastrado");
+            }
+        }
+        int gravados = 0;
+        // Um upsert no resumo por status, nao por pedido: {quantidade, soma dos instantes}
+        final EnumMap<Pedido.Status, long[]> resumo = new EnumMap<>(Pedido.Status.class);
+        final List<PedidoAlteradoEvent> alterados = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            // CPF do cliente recebido, nao da referencia; a referencia evita um SELECT por pedido
+            final String cpf = pedido.getCliente().getCpf();
+            pedido.setCliente(this.entityManager.getReference(Cliente.class, pedido.getCliente().getId()));
+            this.entityManager.persist(pedido);
+            this.entityManager.persist(pedidoCriado(pedido, cpf));
+            this.entityManager.persist(statusInicial(pedido));
+            final long[] acumulado = resumo.computeIfAbsent(pedido.getStatus(), status -> new long[2]);
+            acumulado[0]++;
+            acumulado[1] += pedido.getStatusDesde().getEpochSecond();
+            alterados.add(new PedidoAlteradoEvent(pedido.getId(), cpf, pedido.getStatus(), pedido.getDescricao()));
+            if (++gravados % this.tamanhoLote == 0) {
+                // Envia o lote e libera o contexto de persistencia para manter a memoria constante.
+                // O flush pelo repositorio traduz erros de constraint em DataIntegrityViolationException
+                this.repository.flush();
+                this.entityManager.clear();
+            }
+        }
+        this.repository.flush();
+        this.entityManager.clear();
+        novasVersoesDosClientes(cpfs);
+        acumularResumo(resumo);
+        this.eventPublisher.publishEvent(new PedidosAlteradosEvent(alterados));
+        return gravados;
+    }
+
+    @Override
+    @Transactional
+    public void alterarStatus(UUID id, Pedido.Status novoStatus) {
+        // Trava o pedido para que duas transicoes simultaneas nao contem em dobro no resumo
+        final Pedido pedido = this.entityManager.find(Pedido.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (pedido == null) {
+            throw new NoSuchElementException("Pedido " + id + " nao encontrado");
+        }
+        final Pedido.Status anterior = pedido.getStatus();
+        if (anterior == novoStatus) {
+            return;
+        }
+        // Cliente travado antes do resumo, como no save e no saveAll: cliente -> resumo
+        novaVersaoDoCliente(pedido.getCliente().getId());
+        final Instant agora = Instant.now();
+        // As duas linhas do resumo sao travadas sempre na ordem dos status, como no saveAll:
+        // transicoes opostas simultaneas (A->B e B->A) nao se bloqueiam em ordem inversa
+        final EnumMap<Pedido.Status, long[]> resumo = new EnumMap<>(Pedido.Status.class);
+        if (anterior != null) {
+            final Instant desde = pedido.getStatusDesde() != null ? pedido.getStatusDesde() : agora;
+            resumo.put(anterior, new long[]{-1, -desde.getEpochSecond()});
+        }
+        resumo.put(novoStatus, new long[]{1, agora.getEpochSecond()});
+        acumularResumo(resumo);
+        this.statusEventoRepository.save(new PedidoStatusEvento(id, anterior, novoStatus, agora));
+        pedido.setStatus(novoStatus);
+        pedido.setStatusDesde(agora);
+        this.eventPublisher.publishEvent(PedidoAlteradoEvent.from(pedido));
+    }
+
+    @Override
+    public List<StatusResumo> resumoPorStatus() {
+        return this.statusResumoRepository.totalPorStatus();
+    }
+
+    // Paginas por keyset, sem transacao: nenhum result set ou conexao fica preso enquanto o cliente baixa
+    // devagar (o MySQL derrubaria a leitura pelo net_write_timeout). Por status, o indice (status, id)
+    // entrega cada pagina ja ordenada; por cliente, o indice da FK (cliente_id, id)
+    @Override
+    public long exportar(String cpf, Pedido.Status status, Consumer<PedidoListagem> destino) {
+        final Long numero = cpf != null ? CpfUtils.paraNumero(cpf) : null;
+        long exportados = 0;
+        List<PedidoListagem> pagina = this.repository.buscar(null, numero == null ? status : null, numero, null,
+                this.paginaExportacao);
+        while (!pagina.isEmpty()) {
+            pagina.forEach(destino);
+            exportados += pagina.size();
+            if (pagina.size() < this.paginaExportacao) {
+                break;
+            }
+            pagina = this.repository.buscar(null, numero == null ? status : null, numero, pagina.getLast().id(),
+                    this.paginaExportacao);
+        }
+        return exportados;
+    }
+
+    // A migracao cria os slots de cada status. Bancos sem ela (ex.: schema gerado pelo Hibernate),
+    // um status novo ou mais slots configurados ganham as linhas aqui, fora das transacoes de pedido:
+    // criar sob demanda faria pedidos simultaneos disputarem o mesmo insert. ApplicationReadyEvent e publicado
+    // uma vez; o ContextRefreshedEvent tambem chega dos contextos filhos (ex.: o de cada cliente Feign,
+    // criado na primeira chamada, numa thread de requisicao).
+    @EventListener(ApplicationReadyEvent.class)
+    public void criarResumosFaltantes() {
+        for (Pedido.Status status : Pedido.Status.values()) {
+            for (int slot = 0; slot < this.slotsResumo; slot++) {
+                final PedidoStatusResumo.Chave chave = new PedidoStatusResumo.Chave(status, slot);
+                try {
+                    this.transactionTemplate.executeWithoutResult(tx -> {
+                        if (!this.statusResumoRepository.existsById(chave)) {
+                            this.statusResumoRepository.criar(chave.status().name(), chave.slot());
+                        }
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    // Outra instancia criou a linha ao mesmo tempo
+                }
+            }
+        }
+    }
+
+    // {quantidade, soma dos instantes} por status, aplicados em ordem de status num mesmo slot sorteado
+    private void acumularResumo(EnumMap<Pedido.Status, long[]> resumo) {
+        final int slot = ThreadLocalRandom.current().nextInt(this.slotsResumo);
+        resumo.forEach((status, acumulado) -> {
+            if (this.statusResumoRepository.somar(status.name(), slot, acumulado[0], acumulado[1]) == 0) {
+                throw new IllegalStateException("Status " + status + " sem slot " + slot + " em pedido_status_resumo");
+            }
+        });
+    }
+
+    // A pagina de pedidos usa a versao do cliente como ETag: qualquer mudanca nos pedidos precisa incrementa-la.
+    // O incremento passa pelo contexto de persistencia, entao a entrada do cliente no cache L2 acompanha.
+    private Cliente novaVersaoDoCliente(Long cpf) {
+        final Cliente cliente = this.entityManager.find(Cliente.class, cpf, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        // Cliente inexistente continua sendo recusado pela FK no flush
+        return cliente != null ? cliente : this.entityManager.getReference(Cliente.class, cpf);
+    }
+
+    // SELECT ... FOR UPDATE em ordem de CPF (a lista chega ordenada): dois lotes com clientes em comum, ou
+    // um lote e um save/alterarStatus, travam os mesmos clientes na mesma ordem e apenas esperam um pelo outro
+    private Set<Long> travarClientes(List<Long> cpfs) {
+        final Set<Long> cadastrados = new HashSet<>(cpfs.size());
+        for (int i = 0; i < cpfs.size(); i += LOTE_VERSOES) {
+            cadastrados.addAll(this.entityManager
+                    .createQuery("select c.id from Cliente c where c.id in :cpfs order by c.id", Long.class)
+                    .setParameter("cpfs", cpfs.subList(i, Math.min(i + LOTE_VERSOES, cpfs.size())))
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList());
+        }
+        return cadastrados;
+    }
+
+    // Em cargas em lote um UPDATE por bloco de clientes, ja travados. Pelo JDBC, porque um UPDATE do Hibernate
+    // esvaziaria a regiao de clientes inteira do cache L2: apos o commit sai so a entrada de cada cliente do lote
+    private void novasVersoesDosClientes(List<Long> cpfs) {
+        for (int i = 0; i < cpfs.size(); i += LOTE_VERSOES) {
+            this.jdbcTemplate.update("update cliente set versao = versao + 1 where cpf in (:cpfs)",
+                    Map.of("cpfs", cpfs.subList(i, Math.min(i + LOTE_VERSOES, cpfs.size()))));
+        }
+        final Cache cache = this.entityManager.getEntityManagerFactory().getCache();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cpfs.forEach(cpf -> cache.evict(Cliente.class, cpf));
+            }
+        });
+    }
+
+    private static PedidoStatusEvento statusInicial(Pedido pedido) {
+        return new PedidoStatusEvento(pedido.getId(), null, pedido.getStatus(), pedido.getStatusDesde());
+    }
+
+    private OutboxEvento pedidoCriado(Pedido pedido, String cpf) {
+        final PedidoCriadoEvento evento = new PedidoCriadoEvento(pedido.getId(), cpf, pedido.getDescricao());
+        try {
+            return new OutboxEvento(pedido.getId(), OutboxEvento.PEDIDO_CRIADO, this.objectMapper.writeValueAsString(evento));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,81 @@
+package br.com.fiap.vendasms.utils;
+
+/**
+ * CPF na forma canonica (11 digitos, com zeros a esquerda), como numero para o banco e
+ * formatado (000.000.000-00) para exibicao.
+ */
+public class CpfUtils {
+
+    private static final int DIGITOS = 11;
+
+    private CpfUtils() {
+    }
+
+    /**
+     * Remove pontuacao e completa com zeros a esquerda. Nao confere os digitos verificadores.
+     *
+     * @throws IllegalArgumentException se nao houver digitos ou houver mais de 11
+     */
+    public static String normalizar(String cpf) {
+        if (cpf == null) {
+            throw new IllegalArgumentException("CPF nao informado");
+        }
+        final StringBuilder digitos = new StringBuilder(DIGITOS);
+        for (int i = 0; i < cpf.length(); i++) {
+            final char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            } else if (c != '.' && c != '-' && !Character.isWhitespace(c)) {
+                throw new IllegalArgumentException("CPF invalido: " + cpf);
+            }
+        }
+        if (digitos.isEmpty() || digitos.length() > DIGITOS) {
+            throw new IllegalArgumentException("CPF invalido: " + cpf);
+        }
+        return "0".repeat(DIGITOS - digitos.length()) + digitos;
+    }
+
+    /**
+     * @return true se o CPF tem 11 digitos (apos normalizar) e os digitos verificadores conferem
+     */
+    public static boolean valido(String cpf) {
+        final String digitos;
+        try {
+            digitos = normalizar(cpf);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // 000.000.000-00, 111.111.111-11 etc. passam no calculo mas nao sao emitidos
+        if (digitos.chars().distinct().count() == 1) {
+            return false;
+        }
+        return digitoVerificador(digitos, 9) == digitos.charAt(9) - '0'
+                && digitoVerificador(digitos, 10) == digitos.charAt(10) - '0';
+    }
+
+    public static long paraNumero(String cpf) {
+        return Long.parseLong(normalizar(cpf));
+    }
+
+    public static String deNumero(long cpf) {
+        if (cpf < 0 || cpf > 99_999_999_999L) {
+            throw new IllegalArgumentException("CPF invalido: " + cpf);
+        }
+        return String.format("%011d", cpf);
+    }
+
+    public static String formatar(String cpf) {
+        final String digitos = normalizar(cpf);
+        return digitos.substring(0, 3) + '.' + digitos.substring(3, 6) + '.' + digitos.substring(6, 9)
+                + '-' + digitos.substring(9);
+    }
+
+    private static int digitoVerificador(String digitos, int posicao) {
+        int soma = 0;
+        for (int i = 0; i < posicao; i++) {
+            soma += (digitos.charAt(i) - '0') * (posicao + 1 - i);
+        }
+        final int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.vendasms.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Codifica o id do ultimo registro de uma pagina como um cursor opaco para a URL.
+ */
+public class CursorUtils {
+
+    private CursorUtils() {
+    }
+
+    public static String encode(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @return o id codificado no cursor, ou {@code null} para cursor vazio ou invalido
+     */
+    public static UUID decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            return buffer.remaining() == 16 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
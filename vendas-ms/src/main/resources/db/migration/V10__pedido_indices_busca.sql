@@ -0,0 +1,6 @@
+-- Busca de pedidos (/pedidos/busca): filtros por status e cliente usam o indice composto
+-- (o id entra implicitamente no fim, entao "status = ? and cliente_id = ? order by id" nao ordena),
+-- e o texto da descricao usa o indice FULLTEXT em vez de varrer a tabela com LIKE.
+-- O primeiro indice FULLTEXT reconstroi a tabela (coluna oculta FTS_DOC_ID).
+CREATE INDEX idx_pedido_status_cliente ON pedido (status, cliente_id);
+CREATE FULLTEXT INDEX ft_pedido_descricao ON pedido (descricao);
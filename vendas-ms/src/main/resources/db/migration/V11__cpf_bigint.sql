@@ -0,0 +1,50 @@
+-- CPF como BIGINT na PK de cliente e na FK de pedido: 8 bytes por linha e por entrada de indice
+-- no lugar de um VARCHAR(255), e comparacao numerica nos joins.
+-- Os valores existentes sao normalizados antes (so digitos) para a conversao nao falhar.
+
+-- Pre-checagem, antes de qualquer DDL (o MySQL nao desfaz DDL): a migracao aborta com a
+-- primeira amostra do problema se algum CPF tiver caracteres alem de digitos, pontos, hifens
+-- e espacos, nao tiver exatamente 11 digitos (vazio, curto ou longo) ou se dois CPFs virarem
+-- o mesmo numero depois de normalizados. Corrija os cadastros e rode a migracao de novo.
+DROP PROCEDURE IF EXISTS v11_validar_cpfs;
+
+DELIMITER //
+CREATE PROCEDURE v11_validar_cpfs()
+BEGIN
+    DECLARE amostra VARCHAR(255);
+
+    SELECT cpf INTO amostra FROM cliente
+    WHERE REGEXP_LIKE(cpf, '[^0-9.[:space:]-]')
+       OR CHAR_LENGTH(REGEXP_REPLACE(cpf, '[^0-9]', '')) <> 11
+    LIMIT 1;
+    IF amostra IS NOT NULL THEN
+        SET @v11_erro = CONCAT('V11: CPF invalido em cliente (exigidos 11 digitos): ', LEFT(amostra, 60));
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = @v11_erro;
+    END IF;
+
+    SELECT REGEXP_REPLACE(cpf, '[^0-9]', '') INTO amostra FROM cliente
+    GROUP BY REGEXP_REPLACE(cpf, '[^0-9]', '')
+    HAVING COUNT(*) > 1
+    LIMIT 1;
+    IF amostra IS NOT NULL THEN
+        SET @v11_erro = CONCAT('V11: mais de um cliente com o CPF ', amostra, ' apos normalizar');
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = @v11_erro;
+    END IF;
+END //
+DELIMITER ;
+
+CALL v11_validar_cpfs();
+DROP PROCEDURE v11_validar_cpfs;
+
+ALTER TABLE pedido DROP FOREIGN KEY fk_pedido_cliente;
+
+-- pedido.cliente_id referenciava cliente.cpf pela FK, entao segue a mesma normalizacao
+UPDATE cliente SET cpf = REGEXP_REPLACE(cpf, '[^0-9]', '');
+UPDATE pedido SET cliente_id = REGEXP_REPLACE(cliente_id, '[^0-9]', '')
+WHERE cliente_id IS NOT NULL;
+
+ALTER TABLE cliente MODIFY cpf BIGINT NOT NULL;
+ALTER TABLE pedido MODIFY cliente_id BIGINT;
+
+ALTER TABLE pedido
+    ADD CONSTRAINT fk_pedido_cliente FOREIGN KEY (cliente_id) REFERENCES cliente (cpf);
@@ -0,0 +1,10 @@
+-- Endereco resolvido pelo CEP gravado no cliente: as paginas de pedidos deixam de consultar o ViaCEP.
+-- Clientes existentes ficam com endereco_atualizado_em nulo e sao preenchidos pelo ClienteEnderecoRefresher,
+-- que percorre o indice abaixo (nulos primeiro, depois os mais antigos).
+ALTER TABLE cliente
+    ADD COLUMN logradouro            VARCHAR(255),
+    ADD COLUMN bairro                VARCHAR(255),
+    ADD COLUMN localidade            VARCHAR(255),
+    ADD COLUMN estado                VARCHAR(255),
+    ADD COLUMN endereco_atualizado_em TIMESTAMP(6) NULL;
+CREATE INDEX idx_cliente_endereco_atualizado_em ON cliente (endereco_atualizado_em);
@@ -0,0 +1,9 @@
+-- usuarios_roles nao tinha chave unica, entao um "insert ignore" (como o do V4) nunca ignorava
+-- nada e um papel repetido virava duas linhas. Remove duplicatas e garante um papel por login.
+CREATE TEMPORARY TABLE usuarios_roles_unicos AS
+    SELECT DISTINCT login, role FROM usuarios_roles WHERE role IS NOT NULL;
+DELETE FROM usuarios_roles;
+INSERT INTO usuarios_roles (login, role) SELECT login, role FROM usuarios_roles_unicos;
+DROP TEMPORARY TABLE usuarios_roles_unicos;
+ALTER TABLE usuarios_roles MODIFY role VARCHAR(255) NOT NULL;
+ALTER TABLE usuarios_roles ADD CONSTRAINT uk_usuarios_roles UNIQUE (login, role);
@@ -0,0 +1,13 @@
+-- Eventos da outbox que o OutboxRelay nao consegue publicar (payload invalido, cliente inexistente).
+-- Saem da outbox na mesma transacao do lote, para nao travar os eventos seguintes a cada rodada,
+-- e ficam aqui para analise e reprocessamento manual.
+CREATE TABLE outbox_evento_falha (
+    id          BINARY(16)   NOT NULL,
+    agregado_id BINARY(16)   NOT NULL,
+    tipo        VARCHAR(100) NOT NULL,
+    payload     TEXT         NOT NULL,
+    criado_em   TIMESTAMP(3) NOT NULL,
+    erro        VARCHAR(1000) NOT NULL,
+    falhou_em   TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (id)
+);
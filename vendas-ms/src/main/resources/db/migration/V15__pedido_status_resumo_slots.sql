@@ -0,0 +1,13 @@
+-- Resumo por status dividido em slots: cada transacao soma em um slot sorteado
+-- (pedidos.resumo.slots), entao inserts simultaneos no mesmo status nao ficam
+-- enfileirados na trava de uma unica linha. O total do status e a soma dos slots.
+ALTER TABLE pedido_status_resumo ADD COLUMN slot SMALLINT NOT NULL DEFAULT 0;
+
+ALTER TABLE pedido_status_resumo DROP PRIMARY KEY, ADD PRIMARY KEY (status, slot);
+
+-- Os totais atuais ficam no slot 0; os demais comecam zerados
+INSERT INTO pedido_status_resumo (status, slot, quantidade, soma_desde_epoch)
+SELECT r.status, s.slot, 0, 0
+FROM pedido_status_resumo r
+         CROSS JOIN (SELECT 1 AS slot UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+                     UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7) s;
@@ -0,0 +1,4 @@
+-- Busca so por status e exportacao por status (where status = ? order by id): o indice
+-- (status, cliente_id) ordena por cliente dentro do status e obrigaria um filesort.
+-- Com (status, id) as linhas ja saem na ordem do keyset/cursor.
+CREATE INDEX idx_pedido_status_id ON pedido (status, id);
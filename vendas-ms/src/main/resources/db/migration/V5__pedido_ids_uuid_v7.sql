@@ -0,0 +1,11 @@
+-- Pedido passa a usar UUIDv7 (ordenado pelo tempo). Os ids v4 ja existentes recebem
+-- o timestamp desta migracao nos 48 bits iniciais e a versao 7, preservando os bits
+-- aleatorios e a variante. Assim as linhas antigas ficam antes de qualquer pedido novo
+-- na ordem da PK (e da paginacao por cursor).
+UPDATE pedido
+SET id = UNHEX(CONCAT(
+        LPAD(HEX(CAST(UNIX_TIMESTAMP(NOW(3)) * 1000 AS UNSIGNED)), 12, '0'),
+        '7',
+        SUBSTRING(HEX(id), 14, 3),
+        SUBSTRING(HEX(id), 17, 16)))
+WHERE SUBSTRING(HEX(id), 13, 1) <> '7';
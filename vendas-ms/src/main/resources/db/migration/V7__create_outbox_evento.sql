@@ -0,0 +1,10 @@
+-- Outbox transacional: eventos gravados na mesma transacao do pedido e
+-- publicados no ActiveMQ pelo OutboxRelay, que apaga as linhas ja enviadas.
+CREATE TABLE outbox_evento (
+    id          BINARY(16)   NOT NULL,
+    agregado_id BINARY(16)   NOT NULL,
+    tipo        VARCHAR(100) NOT NULL,
+    payload     TEXT         NOT NULL,
+    criado_em   TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (id)
+);
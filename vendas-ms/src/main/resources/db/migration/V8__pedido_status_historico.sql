@@ -0,0 +1,37 @@
+-- Historico de status: cada transicao vira uma linha em pedido_status_evento (so insert)
+-- e pedido_status_resumo guarda, por status, quantos pedidos estao nele e a soma dos
+-- instantes de entrada (epoch em segundos), de onde sai a idade media sem varrer pedido.
+ALTER TABLE pedido ADD COLUMN status_desde TIMESTAMP(3) NULL;
+
+-- Pedidos antigos nao tem historico: a idade passa a contar a partir desta migracao
+UPDATE pedido SET status_desde = NOW(3);
+
+ALTER TABLE pedido MODIFY status_desde TIMESTAMP(3) NOT NULL;
+
+CREATE TABLE pedido_status_evento (
+    id              BINARY(16)   NOT NULL,
+    pedido_id       BINARY(16)   NOT NULL,
+    status_anterior VARCHAR(30),
+    status_novo     VARCHAR(30)  NOT NULL,
+    ocorrido_em     TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_pedido_status_evento_pedido (pedido_id)
+);
+
+CREATE TABLE pedido_status_resumo (
+    status           VARCHAR(30) NOT NULL,
+    quantidade       BIGINT      NOT NULL,
+    soma_desde_epoch BIGINT      NOT NULL,
+    PRIMARY KEY (status)
+);
+
+-- Uma linha por status desde o inicio: as transicoes so precisam de UPDATE
+INSERT INTO pedido_status_resumo (status, quantidade, soma_desde_epoch)
+VALUES ('PENDENTE_ENVIO', 0, 0),
+       ('ENVIO_EM_PROCESSAMENTO', 0, 0),
+       ('FINALIZADO', 0, 0);
+
+UPDATE pedido_status_resumo r
+    JOIN (SELECT status, COUNT(*) AS quantidade FROM pedido GROUP BY status) p ON p.status = r.status
+SET r.quantidade       = p.quantidade,
+    r.soma_desde_epoch = p.quantidade * UNIX_TIMESTAMP();
@@ -0,0 +1,3 @@
+-- Versao do cliente (@Version), incrementada tambem quando os pedidos dele mudam.
+-- Os ETags das paginas de cliente e de pedidos sao derivados dela.
+ALTER TABLE cliente ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
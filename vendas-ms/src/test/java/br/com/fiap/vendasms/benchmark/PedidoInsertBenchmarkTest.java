@@ -0,0 +1,85 @@
+package br.com.fiap.vendasms.benchmark;
+
+import br.com.fiap.vendasms.utils.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compara a vazao de insercao na tabela de pedidos com PK BINARY(16) usando UUID v4
+ * (aleatorio) e UUID v7 (ordenado pelo tempo). Fica desligado no build normal; para
+ * rodar contra o MySQL do compose.yaml:
+ * <pre>
+ * ./mvnw test -Dtest=PedidoInsertBenchmarkTest -Dbenchmark=true \
+ *     -Dbenchmark.jdbc.url="jdbc:mysql://localhost:3306/vendasdb?rewriteBatchedStatements=true" \
+ *     -Dbenchmark.jdbc.user=root -Dbenchmark.jdbc.password=root -Dbenchmark.rows=1000000
+ * </pre>
+ * A diferenca aparece quando o indice da PK nao cabe mais no buffer pool do InnoDB.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PedidoInsertBenchmarkTest {
+
+    private static final int LOTE = 1_000;
+
+    @Test
+    void insertThroughput_v4VersusV7() throws Exception {
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:bench;MODE=MySQL");
+        String user = System.getProperty("benchmark.jdbc.user", "sa");
+        String password = System.getProperty("benchmark.jdbc.password", "");
+        int linhas = Integer.getInteger("benchmark.rows", 200_000);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            double v4 = inserir(connection, "pedido_bench_v4", linhas, UUID::randomUUID);
+            double v7 = inserir(connection, "pedido_bench_v7", linhas, UuidV7Generator::next);
+
+            System.out.printf("UUID v4: %,.0f inserts/s%n", v4);
+            System.out.printf("UUID v7: %,.0f inserts/s (%.2fx)%n", v7, v7 / v4);
+        }
+    }
+
+    private static double inserir(Connection connection, String tabela, int linhas, Supplier<UUID> ids) throws Exception {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + tabela);
+            ddl.execute("CREATE TABLE " + tabela + " (id BINARY(16) NOT NULL, descricao VARCHAR(255), "
+                    + "status VARCHAR(255), cliente_id VARCHAR(255), PRIMARY KEY (id))");
+        }
+        connection.commit();
+
+        long inicio = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + tabela + " (id, descricao, status, cliente_id) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= linhas; i++) {
+                UUID id = ids.get();
+                insert.setBytes(1, ByteBuffer.allocate(16)
+                        .putLong(id.getMostSignificantBits())
+                        .putLong(id.getLeastSignificantBits())
+                        .array());
+                insert.setString(2, "pedido de benchmark " + i);
+                insert.setString(3, "PENDENTE_ENVIO");
+                insert.setString(4, "12345678909");
+                insert.addBatch();
+                if (i % LOTE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE " + tabela);
+        }
+        connection.commit();
+        return linhas / segundos;
+    }
+}
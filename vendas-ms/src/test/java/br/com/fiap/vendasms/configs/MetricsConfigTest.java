@@ -0,0 +1,38 @@
+package br.com.fiap.vendasms.configs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MetricsConfig.ViewRenderTimer interceptor = new MetricsConfig.ViewRenderTimer(this.meterRegistry);
+
+    @Test
+    void viewRenderTimer_recordsRenderTimePerView() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        this.interceptor.postHandle(request, response, null, new ModelAndView("pedido/detalhe-pedidos"));
+        this.interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(this.meterRegistry.get("vendas.view.render").tag("view", "pedido/detalhe-pedidos").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void viewRenderTimer_ignoresRedirects() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        this.interceptor.postHandle(request, response, null, new ModelAndView("redirect:/pedidos"));
+        this.interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(this.meterRegistry.find("vendas.view.render").timer()).isNull();
+    }
+}
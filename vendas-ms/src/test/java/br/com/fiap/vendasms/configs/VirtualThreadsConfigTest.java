@@ -0,0 +1,53 @@
+package br.com.fiap.vendasms.configs;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadsConfig.PinningMonitor monitor =
+            new VirtualThreadsConfig.PinningMonitor(this.meterRegistry, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        this.monitor.stop();
+    }
+
+    @Test
+    void pinningMonitor_recordsBlockingInsideSynchronized() throws Exception {
+        this.monitor.start();
+
+        final Object trava = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (trava) {
+                dormir(Duration.ofMillis(50));
+            }
+        }).join();
+
+        // O JFR entrega os eventos ao stream em blocos, cerca de uma vez por segundo
+        Timer timer = null;
+        for (int tentativa = 0; tentativa < 100 && timer == null; tentativa++) {
+            Thread.sleep(100);
+            timer = this.meterRegistry.find("vendas.threads.virtual.pinned")
+                    .tag("origem", VirtualThreadsConfigTest.class.getName())
+                    .timer();
+        }
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    private static void dormir(Duration duracao) {
+        try {
+            Thread.sleep(duracao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.service.ClienteImportacaoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ClienteImportacaoControllerTest {
+
+    private final ClienteImportacaoService importacaoService = mock(ClienteImportacaoService.class);
+    private final ClienteImportacaoController controller =
+            new ClienteImportacaoController(this.importacaoService, DataSize.ofBytes(64));
+
+    @Test
+    void importar_rejectsFilesAboveTheLimitBeforeReadingThem() throws Exception {
+        final MockMultipartFile arquivo = new MockMultipartFile("arquivo", "clientes.csv", "text/csv",
+                "12345678909;Maria;01310100;1000;;\n".repeat(3).getBytes(StandardCharsets.UTF_8));
+
+        assertThatExceptionOfType(MaxUploadSizeExceededException.class)
+                .isThrownBy(() -> this.controller.importar(arquivo))
+                .satisfies(e -> assertThat(this.controller.arquivoGrande(e).getStatusCode())
+                        .isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        verify(this.importacaoService, never()).importar(any());
+    }
+}
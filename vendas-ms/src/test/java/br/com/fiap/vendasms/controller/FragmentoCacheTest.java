@@ -0,0 +1,78 @@
+package br.com.fiap.vendasms.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FragmentoCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FragmentoCache fragmentos;
+
+    @BeforeEach
+    void setUp() {
+        final ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        final ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setFallbackToSystemLocale(false);
+        final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        this.fragmentos = new FragmentoCache(templateEngine, this.meterRegistry, 100, Duration.ofHours(1));
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContextPath("/vendas");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void navbar_rendersOncePerLocaleUserAndPage() {
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+
+        final String html = this.fragmentos.navbar("pedidos", "maria", "https://avatars/maria.png");
+
+        assertThat(html).contains(">Orders<", ">maria<", "href=\"/vendas/pedidos\"", "https://avatars/maria.png");
+        assertThat(this.fragmentos.navbar("pedidos", "maria", "https://avatars/maria.png")).isEqualTo(html);
+        assertThat(this.meterRegistry.get("vendas.view.fragmento.render").tag("fragmento", "navbar").timer().count())
+                .isEqualTo(1);
+        assertThat(this.meterRegistry.get("vendas.view.fragmento.economizado").counter().count()).isPositive();
+    }
+
+    @Test
+    void navbar_doesNotShareHtmlAcrossLocalesOrUsers() {
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        final String ingles = this.fragmentos.navbar("home", "maria", null);
+        final String outroUsuario = this.fragmentos.navbar("home", "joao", null);
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        final String frances = this.fragmentos.navbar("home", "maria", null);
+
+        assertThat(ingles).contains(">Home<", ">maria<");
+        assertThat(outroUsuario).contains(">joao<").doesNotContain(">maria<");
+        assertThat(frances).contains(">Accueil<");
+        assertThat(this.meterRegistry.get("vendas.view.fragmento.render").timer().count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.repositories.OutboxEventoRepository;
+import br.com.fiap.vendasms.repositories.PedidoRepository;
+import br.com.fiap.vendasms.repositories.PedidoStatusEventoRepository;
+import br.com.fiap.vendasms.service.CepService;
+import br.com.fiap.vendasms.service.ClienteService;
+import br.com.fiap.vendasms.service.PedidoEventosService;
+import br.com.fiap.vendasms.service.PedidoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem a transacao do teste: a versao do cliente so chega ao cache de segundo nivel no commit
+@DataJpaTest
+@ActiveProfiles("test")
+@ComponentScan(basePackages = "br.com.fiap.vendasms.service", useDefaultFilters = false,
+        includeFilters = @ComponentScan.Filter(type = FilterType.REGEX,
+                pattern = "br\\.com\\.fiap\\.vendasms\\.service\\.(Pedido|Cliente)ServiceImpl"))
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PedidoControllerTest {
+
+    private static final String DETALHE = "/pedidos/detalhe/12345678909";
+
+    @Autowired
+    PedidoService pedidoService;
+
+    @Autowired
+    ClienteService clienteService;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @Autowired
+    PedidoStatusEventoRepository statusEventoRepository;
+
+    @Autowired
+    OutboxEventoRepository outboxRepository;
+
+    @MockitoBean
+    CepService cepService;
+
+    @MockitoBean
+    PedidoEventosService pedidoEventosService;
+
+    // O ETag depende da sessao: todas as requisicoes sao do mesmo usuario logado
+    private final MockHttpSession sessao = new MockHttpSession();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        this.mockMvc = MockMvcBuilders.standaloneSetup(
+                new PedidoController(this.pedidoService, this.clienteService, this.pedidoEventosService),
+                new PedidoStatusController(this.pedidoService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.outboxRepository.deleteAll();
+        this.statusEventoRepository.deleteAll();
+        this.pedidoRepository.deleteAll();
+        this.clienteRepository.deleteAll();
+    }
+
+    @Test
+    void detalhes_revalidatesWithTheCustomerVersionAsETag() throws Exception {
+        final String inicial = etag(logado(get(DETALHE)));
+
+        this.mockMvc.perform(logado(get(DETALHE)).header(HttpHeaders.IF_NONE_MATCH, inicial))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"));
+
+        // Pedido novo: a versao do cliente muda e a pagina em cache deixa de valer
+        this.mockMvc.perform(logado(post("/pedidos/novo/salvar"))
+                        .param("cpf", "12345678909")
+                        .param("descricao", "pedido"))
+                .andExpect(status().is3xxRedirection());
+        final String aposPedido = etag(logado(get(DETALHE)).header(HttpHeaders.IF_NONE_MATCH, inicial));
+        assertThat(aposPedido).isNotEqualTo(inicial);
+
+        // Transicao de status: idem
+        this.mockMvc.perform(logado(patch("/pedidos/{id}/status",
+                        this.pedidoRepository.findByCliente_Id(12345678909L).getFirst().getId()))
+                        .param("status", "FINALIZADO"))
+                .andExpect(status().isNoContent());
+        final String aposStatus = etag(logado(get(DETALHE)).header(HttpHeaders.IF_NONE_MATCH, aposPedido));
+        assertThat(aposStatus).isNotEqualTo(aposPedido);
+    }
+
+    private String etag(MockHttpServletRequestBuilder request) throws Exception {
+        return this.mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder logado(MockHttpServletRequestBuilder request) {
+        final DefaultOAuth2User usuario = new DefaultOAuth2User(AuthorityUtils.createAuthorityList("ROLE_USER"),
+                Map.of("login", "maria", "avatar_url", "https://avatars.example/maria"), "login");
+        return request.session(this.sessao)
+                .principal(new OAuth2AuthenticationToken(usuario, usuario.getAuthorities(), "github"));
+    }
+}
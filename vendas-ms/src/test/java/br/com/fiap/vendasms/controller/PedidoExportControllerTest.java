@@ -0,0 +1,68 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import br.com.fiap.vendasms.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PedidoExportControllerTest {
+
+    private final PedidoService pedidoService = mock(PedidoService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new PedidoExportController(this.pedidoService, new ObjectMapper(), Duration.ofMinutes(10)))
+            .build();
+
+    @Test
+    void linhaCsv_neutralisesValuesASpreadsheetWouldReadAsFormulas() {
+        final UUID id = UUID.randomUUID();
+
+        assertThat(PedidoExportController.linhaCsv(new PedidoListagem(id, Pedido.Status.PENDENTE_ENVIO,
+                "=HYPERLINK(\"http://x\";\"ok\")", "12345678909", "@Maria", "01310100", "1000", null, null)))
+                .isEqualTo(id + ";12345678909;'@Maria;PENDENTE_ENVIO;\"'=HYPERLINK(\"\"http://x\"\";\"\"ok\"\")\"\n");
+        assertThat(PedidoExportController.linhaCsv(new PedidoListagem(id, Pedido.Status.PENDENTE_ENVIO,
+                "-10 unidades", "12345678909", "Maria", "01310100", "1000", null, null)))
+                .endsWith(";'-10 unidades\n");
+    }
+
+    @Test
+    void csv_streamsTheExportFormatWithItsOwnTimeout() throws Exception {
+        final UUID id = UUID.randomUUID();
+        doAnswer(invocation -> {
+            invocation.<Consumer<PedidoListagem>>getArgument(2).accept(new PedidoListagem(id, Pedido.Status.FINALIZADO,
+                    "caneta; azul", "12345678909", "Maria", "01310100", "1000", null, null));
+            return 1L;
+        }).when(this.pedidoService).exportar(isNull(), eq(Pedido.Status.FINALIZADO), any());
+
+        MvcResult exportacao = this.mockMvc.perform(get("/pedidos/exportar").param("status", "FINALIZADO")
+                        .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // O timeout longo vale so para a exportacao, nao para as demais respostas assincronas
+        assertThat(exportacao.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(10).toMillis());
+        this.mockMvc.perform(asyncDispatch(exportacao))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id;cpf;nome;status;descricao\n"
+                        + id + ";12345678909;Maria;FINALIZADO;\"caneta; azul\"\n"));
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.fiap.vendasms.controller;
+
+import br.com.fiap.vendasms.dto.PedidoInputDto;
+import br.com.fiap.vendasms.service.PedidoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PedidoLoteControllerTest {
+
+    private final PedidoService pedidoService = mock(PedidoService.class);
+    private final PedidoLoteController controller = new PedidoLoteController(this.pedidoService);
+
+    @Test
+    void importarCsv_reportsTheLineOfAnInvalidCpf() {
+        final MockMultipartFile arquivo = new MockMultipartFile("arquivo", "pedidos.csv", "text/csv", """
+                cpf;descricao;status
+                12345678909;pedido um;
+                123456789012;pedido dois;
+                """.getBytes(StandardCharsets.UTF_8));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> this.controller.importarCsv(arquivo))
+                .withMessage("linha 3: CPF invalido: 123456789012")
+                .satisfies(e -> assertThat(this.controller.loteInvalido(e).getBody())
+                        .containsEntry("erro", "Lote rejeitado: linha 3: CPF invalido: 123456789012"));
+        verify(this.pedidoService, never()).saveAll(anyList(), any());
+    }
+
+    @Test
+    void importar_reportsTheItemWithAnUnknownStatus() {
+        final PedidoInputDto pedido = new PedidoInputDto();
+        pedido.setCpf("12345678909");
+        pedido.setStatus("EXTRAVIADO");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> this.controller.importar(List.of(new PedidoInputDto(), pedido)))
+                .withMessage("item 1: CPF nao informado");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> this.controller.importar(List.of(pedido)))
+                .withMessage("item 1: status invalido: EXTRAVIADO");
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.fiap.vendasms.external_interface.offline;
+
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CepIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importar_buildsIndexSearchableByCep() throws Exception {
+        Path csv = dir.resolve("ceps.csv");
+        Files.writeString(csv, """
+                cep;logradouro;bairro;localidade;estado
+                20040-002;Avenida Rio Branco;Centro;Rio de Janeiro;Rio de Janeiro
+                01310-100;Avenida Paulista;Bela Vista;São Paulo;São Paulo
+                70040010;;Asa Norte;Brasília;Distrito Federal
+                """);
+        Path idx = dir.resolve("ceps.idx");
+
+        assertThat(CepIndexWriter.importar(csv, idx)).isEqualTo(3);
+
+        CepIndex index = CepIndex.open(idx);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.get("01310100"))
+                .isEqualTo(new CepDetails("01310-100", "Avenida Paulista", "Bela Vista", "São Paulo", "São Paulo"));
+        assertThat(index.get("20040-002").logradouro()).isEqualTo("Avenida Rio Branco");
+        assertThat(index.get("70040-010").logradouro()).isNull();
+        assertThat(index.get("99999999")).isNull();
+        assertThat(index.get("123")).isNull();
+    }
+
+    @Test
+    void importar_rejectsFieldsLongerThanTheLengthPrefix() throws Exception {
+        Path csv = dir.resolve("ceps.csv");
+        Files.writeString(csv, "cep;logradouro;bairro;localidade;estado\n"
+                + "01310-100;" + "a".repeat(65_536) + ";Bela Vista;São Paulo;SP\n");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CepIndexWriter.importar(csv, dir.resolve("ceps.idx")))
+                .withMessage("linha 2: campo logradouro excede 65535 bytes");
+    }
+}
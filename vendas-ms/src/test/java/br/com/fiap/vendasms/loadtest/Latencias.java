@@ -0,0 +1,93 @@
+package br.com.fiap.vendasms.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Amostras de latencia de um usuario virtual, por etapa. Cada usuario tem a sua instancia
+ * (sem contencao durante a carga); no fim elas sao somadas com {@link #juntar(List)}.
+ */
+final class Latencias {
+
+    private final Map<String, long[]> amostras = new TreeMap<>();
+    private final Map<String, Integer> tamanhos = new TreeMap<>();
+    private final Map<String, Integer> erros = new TreeMap<>();
+
+    void registrar(String etapa, long nanos) {
+        long[] valores = this.amostras.computeIfAbsent(etapa, e -> new long[1024]);
+        final int tamanho = this.tamanhos.getOrDefault(etapa, 0);
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho * 2);
+            this.amostras.put(etapa, valores);
+        }
+        valores[tamanho] = nanos;
+        this.tamanhos.put(etapa, tamanho + 1);
+    }
+
+    void registrarErro(String etapa) {
+        this.erros.merge(etapa, 1, Integer::sum);
+    }
+
+    int total(String etapa) {
+        return this.tamanhos.getOrDefault(etapa, 0);
+    }
+
+    int erros() {
+        return this.erros.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    int totalGeral() {
+        return this.tamanhos.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // Pior p99 entre as etapas, em ms
+    double p99() {
+        double pior = 0;
+        for (Map.Entry<String, Integer> etapa : this.tamanhos.entrySet()) {
+            final long[] ordenadas = Arrays.copyOf(this.amostras.get(etapa.getKey()), etapa.getValue());
+            Arrays.sort(ordenadas);
+            pior = Math.max(pior, percentil(ordenadas, 0.99));
+        }
+        return pior;
+    }
+
+    static Latencias juntar(List<Latencias> porUsuario) {
+        final Latencias total = new Latencias();
+        for (Latencias latencias : porUsuario) {
+            latencias.amostras.forEach((etapa, valores) -> {
+                for (int i = 0; i < latencias.total(etapa); i++) {
+                    total.registrar(etapa, valores[i]);
+                }
+            });
+            latencias.erros.forEach((etapa, quantidade) -> total.erros.merge(etapa, quantidade, Integer::sum));
+        }
+        return total;
+    }
+
+    String relatorio(Duration duracao) {
+        final StringBuilder relatorio = new StringBuilder(String.format("%-16s %9s %7s %9s %8s %8s %8s %8s%n",
+                "etapa", "requests", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        final TreeMap<String, Integer> etapas = new TreeMap<>(this.tamanhos);
+        this.erros.keySet().forEach(etapa -> etapas.putIfAbsent(etapa, 0));
+        etapas.forEach((etapa, tamanho) -> {
+            final long[] ordenadas = tamanho == 0 ? new long[0] : Arrays.copyOf(this.amostras.get(etapa), tamanho);
+            Arrays.sort(ordenadas);
+            relatorio.append(String.format("%-16s %9d %7d %9.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    etapa, tamanho, this.erros.getOrDefault(etapa, 0), tamanho / (duracao.toMillis() / 1000.0),
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.95), percentil(ordenadas, 0.99),
+                    percentil(ordenadas, 1.0)));
+        });
+        return relatorio.toString();
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        final int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,191 @@
+package br.com.fiap.vendasms.loadtest;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.Usuario;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.repositories.PedidoRepository;
+import br.com.fiap.vendasms.repositories.UsuarioRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga do fluxo de venda (consulta do cliente -> novo pedido -> salvar) com a
+ * aplicacao completa, H2 em memoria, broker ActiveMQ embarcado e ViaCEP/GitHub falsos
+ * ({@link ServicosExternosFake}). Fica desligado no build normal; para rodar:
+ * <pre>
+ * ./mvnw test -Dtest=PedidoLoadTest -Dloadtest=true \
+ *     -Dloadtest.usuarios=50 -Dloadtest.duracao=PT60S -Dloadtest.aquecimento=PT10S \
+ *     -Dloadtest.clientes=1000 -Dloadtest.cep.latencia=PT0.05S
+ * </pre>
+ * Imprime vazao e percentis de latencia por etapa. As metricas da aplicacao continuam
+ * disponiveis no registry para comparar com o lado do servidor.
+ * <p>
+ * {@code vazaoMaxima} dobra o numero de usuarios a cada degrau enquanto nao houver erros e o pior
+ * p99 ficar dentro de {@code loadtest.slo.p99}, e informa a maior vazao sustentada. Para comparar
+ * threads de plataforma com virtual threads, rode uma vez em cada modo:
+ * <pre>
+ * ./mvnw test -Dtest=PedidoLoadTest#vazaoMaxima -Dloadtest=true -Dspring.threads.virtual.enabled=false \
+ *     -Dserver.tomcat.threads.max=50 -Dloadtest.rampa.maximo=1280 -Dloadtest.cep.latencia=PT0.2S
+ * ./mvnw test -Dtest=PedidoLoadTest#vazaoMaxima -Dloadtest=true -Dspring.threads.virtual.enabled=true \
+ *     -Dloadtest.rampa.maximo=1280 -Dloadtest.cep.latencia=PT0.2S
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "loadtest"})
+class PedidoLoadTest {
+
+    private static final ServicosExternosFake SERVICOS_EXTERNOS = iniciarServicosExternos();
+
+    @DynamicPropertySource
+    static void servicosExternos(DynamicPropertyRegistry registry) {
+        registry.add("cep-api.url", () -> SERVICOS_EXTERNOS.url() + "/ws");
+        registry.add("spring.security.oauth2.client.provider.github.authorization-uri",
+                () -> SERVICOS_EXTERNOS.url() + "/login/oauth/authorize");
+        registry.add("spring.security.oauth2.client.provider.github.token-uri",
+                () -> SERVICOS_EXTERNOS.url() + "/login/oauth/access_token");
+        registry.add("spring.security.oauth2.client.provider.github.user-info-uri",
+                () -> SERVICOS_EXTERNOS.url() + "/user");
+    }
+
+    @LocalServerPort
+    int porta;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    boolean threadsVirtuais;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @AfterAll
+    static void pararServicosExternos() {
+        SERVICOS_EXTERNOS.close();
+    }
+
+    @Test
+    void fluxoDeVenda() throws Exception {
+        final int usuarios = Integer.getInteger("loadtest.usuarios", 20);
+        final Duration duracao = Duration.parse(System.getProperty("loadtest.duracao", "PT30S"));
+        final Duration aquecimento = Duration.parse(System.getProperty("loadtest.aquecimento", "PT5S"));
+        final List<String> cpfs = popularBase(Integer.getInteger("loadtest.clientes", 1000));
+
+        final Latencias total = executar(cpfs, usuarios, aquecimento, duracao);
+
+        System.out.printf("%d usuarios, %s de medicao apos %s de aquecimento, %d pedidos gravados%n",
+                usuarios, duracao, aquecimento, this.pedidoRepository.count());
+        System.out.print(total.relatorio(duracao));
+
+        assertThat(total.total("salvar-pedido")).isPositive();
+        assertThat(total.erros()).isZero();
+    }
+
+    @Test
+    void vazaoMaxima() throws Exception {
+        final int inicial = Integer.getInteger("loadtest.rampa.inicial", 10);
+        final int maximo = Integer.getInteger("loadtest.rampa.maximo", 320);
+        final Duration duracao = Duration.parse(System.getProperty("loadtest.rampa.duracao", "PT15S"));
+        final Duration aquecimento = Duration.parse(System.getProperty("loadtest.rampa.aquecimento", "PT3S"));
+        final double sloP99 = Duration.parse(System.getProperty("loadtest.slo.p99", "PT1S")).toNanos() / 1e6;
+        final List<String> cpfs = popularBase(Integer.getInteger("loadtest.clientes", 1000));
+
+        System.out.printf("modo: %s, slo p99 %.0f ms%n", this.threadsVirtuais ? "virtual threads" : "threads de plataforma", sloP99);
+        System.out.printf("%9s %9s %9s %7s%n", "usuarios", "req/s", "p99 ms", "erros");
+        double melhor = 0;
+        int usuariosNoMelhor = 0;
+        for (int usuarios = inicial; usuarios <= maximo; usuarios *= 2) {
+            final Latencias degrau = executar(cpfs, usuarios, aquecimento, duracao);
+            final double vazao = degrau.totalGeral() / (duracao.toMillis() / 1000.0);
+            System.out.printf("%9d %9.1f %9.1f %7d%n", usuarios, vazao, degrau.p99(), degrau.erros());
+            if (degrau.erros() > 0 || degrau.p99() > sloP99) {
+                break;
+            }
+            if (vazao > melhor) {
+                melhor = vazao;
+                usuariosNoMelhor = usuarios;
+            }
+        }
+        System.out.printf("vazao maxima sustentada: %.1f req/s com %d usuarios%n", melhor, usuariosNoMelhor);
+
+        assertThat(melhor).isPositive();
+    }
+
+    private Latencias executar(List<String> cpfs, int usuarios, Duration aquecimento, Duration duracao) throws Exception {
+        final long inicioMedicao = System.nanoTime() + aquecimento.toNanos();
+        final long fim = inicioMedicao + duracao.toNanos();
+        final List<Future<Latencias>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < usuarios; i++) {
+                resultados.add(executor.submit(() -> {
+                    final UsuarioVirtual usuario = new UsuarioVirtual("http://localhost:" + this.porta);
+                    usuario.login();
+                    final Latencias latencias = new Latencias();
+                    long agora;
+                    while ((agora = System.nanoTime()) < fim) {
+                        final String cpf = cpfs.get(ThreadLocalRandom.current().nextInt(cpfs.size()));
+                        usuario.vender(cpf, latencias, agora >= inicioMedicao);
+                    }
+                    return latencias;
+                }));
+            }
+        }
+        final List<Latencias> porUsuario = new ArrayList<>();
+        for (Future<Latencias> resultado : resultados) {
+            porUsuario.add(resultado.get());
+        }
+        return Latencias.juntar(porUsuario);
+    }
+
+    // Os dois testes dividem o contexto (e o banco): so grava o que ainda nao existe
+    private List<String> popularBase(int clientes) {
+        if (!this.usuarioRepository.existsById(ServicosExternosFake.LOGIN)) {
+            final Usuario usuario = new Usuario(ServicosExternosFake.LOGIN);
+            usuario.getRoles().add("ROLE_CLIENTE_EDIT");
+            usuario.getRoles().add("ROLE_PEDIDO");
+            this.usuarioRepository.save(usuario);
+        }
+
+        final List<String> cpfs = IntStream.range(0, clientes)
+                .mapToObj(i -> String.format("%011d", 10_000_000_000L + i))
+                .toList();
+        this.clienteRepository.saveAll(cpfs.stream()
+                .filter(cpf -> !this.clienteRepository.existsById(Long.valueOf(cpf)))
+                .map(cpf -> new Cliente(cpf, "Cliente " + cpf, "01310100", "1000", null, null))
+                .toList());
+        return cpfs;
+    }
+
+    private static ServicosExternosFake iniciarServicosExternos() {
+        try {
+            return new ServicosExternosFake(Duration.parse(System.getProperty("loadtest.cep.latencia", "PT0.05S")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
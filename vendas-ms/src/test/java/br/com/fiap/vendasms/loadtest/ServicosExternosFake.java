@@ -0,0 +1,96 @@
+package br.com.fiap.vendasms.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Servidor HTTP local no lugar do ViaCEP e do GitHub (autorizacao, token e user-info do OAuth2).
+ * <p>
+ * O ViaCEP responde com uma latencia fixa para que o tempo de rede apareca na medicao. O
+ * GitHub autoriza qualquer pedido e devolve sempre o mesmo usuario.
+ */
+final class ServicosExternosFake implements AutoCloseable {
+
+    static final String LOGIN = "carga";
+
+    private final HttpServer server;
+    private final Duration latenciaCep;
+
+    ServicosExternosFake(Duration latenciaCep) throws IOException {
+        this.latenciaCep = latenciaCep;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/ws/", this::viaCep);
+        this.server.createContext("/login/oauth/authorize", this::autorizar);
+        this.server.createContext("/login/oauth/access_token", this::token);
+        this.server.createContext("/user", this::usuario);
+        this.server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    private void viaCep(HttpExchange exchange) throws IOException {
+        // /ws/{cep}/json
+        final String cep = exchange.getRequestURI().getPath().split("/")[2];
+        LockSupport.parkNanos(this.latenciaCep.toNanos());
+        responder(exchange, 200, "application/json", """
+                {"cep":"%s","logradouro":"Avenida Paulista","bairro":"Bela Vista",
+                 "localidade":"Sao Paulo","estado":"Sao Paulo"}""".formatted(cep));
+    }
+
+    // Aprova o login na hora e volta para o redirect_uri do vendas-ms com o state recebido
+    private void autorizar(HttpExchange exchange) throws IOException {
+        final Map<String, String> parametros = parametros(exchange.getRequestURI().getRawQuery());
+        final String destino = parametros.get("redirect_uri") + "?code=codigo-carga&state="
+                + URLEncoder.encode(parametros.get("state"), StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Location", destino);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        responder(exchange, 200, "application/json",
+                "{\"access_token\":\"token-carga\",\"token_type\":\"bearer\",\"scope\":\"public_repo\"}");
+    }
+
+    private void usuario(HttpExchange exchange) throws IOException {
+        responder(exchange, 200, "application/json",
+                "{\"login\":\"" + LOGIN + "\",\"id\":1,\"name\":\"Usuario de carga\"}");
+    }
+
+    private static void responder(HttpExchange exchange, int status, String contentType, String corpo) throws IOException {
+        final byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parametros(String query) {
+        return Arrays.stream(query.split("&"))
+                .map(par -> par.split("=", 2))
+                .collect(Collectors.toMap(par -> par[0],
+                        par -> par.length > 1 ? URLDecoder.decode(par[1], StandardCharsets.UTF_8) : ""));
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+}
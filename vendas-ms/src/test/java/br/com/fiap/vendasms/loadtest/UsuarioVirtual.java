@@ -0,0 +1,104 @@
+package br.com.fiap.vendasms.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Um atendente: faz login pelo OAuth2 (contra o GitHub falso) e repete o fluxo de venda
+ * consulta do cliente -> formulario de novo pedido -> salvar pedido, com a propria sessao.
+ */
+final class UsuarioVirtual {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private String csrf;
+    private long pedidos;
+
+    UsuarioVirtual(String baseUrl) {
+        this.baseUrl = baseUrl;
+        // Redirects seguidos manualmente para que cada etapa meça apenas a propria requisicao
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    void login() throws IOException, InterruptedException {
+        URI proxima = URI.create(this.baseUrl + "/oauth2/authorization/github");
+        for (int i = 0; i < 10 && proxima != null; i++) {
+            final HttpResponse<String> resposta = this.http.send(HttpRequest.newBuilder(proxima).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            proxima = resposta.headers().firstValue("Location").map(proxima::resolve).orElse(null);
+        }
+        final HttpResponse<String> clientes = get("/clientes");
+        exigir(clientes, 200, "login");
+        final Matcher matcher = CSRF.matcher(clientes.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Token CSRF nao encontrado apos o login");
+        }
+        this.csrf = matcher.group(1);
+    }
+
+    void vender(String cpf, Latencias latencias, boolean medir) throws IOException, InterruptedException {
+        executar("consulta-cliente", 200, () -> post("/clientes/detalhe", Map.of("cpf", cpf)), latencias, medir);
+        executar("novo-pedido", 200, () -> post("/pedidos/novo", Map.of("cpf", cpf)), latencias, medir);
+        executar("salvar-pedido", 302, () -> post("/pedidos/novo/salvar",
+                Map.of("cpf", cpf, "descricao", "pedido de carga " + ++this.pedidos)), latencias, medir);
+    }
+
+    private void executar(String etapa, int statusEsperado, Requisicao requisicao, Latencias latencias, boolean medir)
+            throws IOException, InterruptedException {
+        final long inicio = System.nanoTime();
+        final HttpResponse<String> resposta = requisicao.enviar();
+        final long duracao = System.nanoTime() - inicio;
+        if (!medir) {
+            return;
+        }
+        if (resposta.statusCode() == statusEsperado) {
+            latencias.registrar(etapa, duracao);
+        } else {
+            latencias.registrarErro(etapa);
+        }
+    }
+
+    private HttpResponse<String> get(String caminho) throws IOException, InterruptedException {
+        return this.http.send(HttpRequest.newBuilder(URI.create(this.baseUrl + caminho)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String caminho, Map<String, String> campos) throws IOException, InterruptedException {
+        final String formulario = campos.entrySet().stream()
+                .map(campo -> campo.getKey() + "=" + URLEncoder.encode(campo.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&", "_csrf=" + URLEncoder.encode(this.csrf, StandardCharsets.UTF_8) + "&", ""));
+        return this.http.send(HttpRequest.newBuilder(URI.create(this.baseUrl + caminho))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void exigir(HttpResponse<String> resposta, int status, String etapa) {
+        if (resposta.statusCode() != status) {
+            throw new IllegalStateException(etapa + ": status " + resposta.statusCode() + " em " + resposta.uri());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Requisicao {
+        HttpResponse<String> enviar() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.fiap.vendasms.repositories;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.events.PedidoAlteradoEvent;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PedidoRepositoryTest {
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        this.cliente = this.clienteRepository.save(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        Cliente outro = this.clienteRepository.save(new Cliente("98765432100", "Joao", "01310100", "1", null, null));
+        for (int i = 0; i < 5; i++) {
+            this.pedidoRepository.save(new Pedido(null, this.cliente, Pedido.Status.PENDENTE_ENVIO, "pedido " + i));
+        }
+        this.pedidoRepository.save(new Pedido(null, outro, Pedido.Status.PENDENTE_ENVIO, "outro cliente"));
+        this.pedidoRepository.save(new Pedido(null, outro, Pedido.Status.FINALIZADO, "Entrega com atraso"));
+        this.pedidoRepository.save(new Pedido(null, this.cliente, Pedido.Status.PENDENTE_ENVIO, "atraso na separacao"));
+    }
+
+    @Test
+    void listarPorCliente_pagesThroughAllOrdersOfTheClienteByKeyset() {
+        List<UUID> ids = new ArrayList<>();
+        List<PedidoListagem> pagina = this.pedidoRepository.listarPorCliente(this.cliente.getId(), Limit.of(2));
+        while (!pagina.isEmpty()) {
+            pagina.forEach(pedido -> ids.add(pedido.id()));
+            pagina = this.pedidoRepository.listarPorCliente(this.cliente.getId(), pagina.getLast().id(), Limit.of(2));
+        }
+
+        assertThat(ids).hasSize(6).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void listarPorCliente_returnsClienteColumnsWithTheOrder() {
+        List<PedidoListagem> pagina = this.pedidoRepository.listarPorCliente(this.cliente.getId(), Limit.of(1));
+
+        assertThat(pagina).singleElement().satisfies(pedido -> {
+            assertThat(pedido.nome()).isEqualTo("Maria");
+            assertThat(pedido.status()).isEqualTo(Pedido.Status.PENDENTE_ENVIO);
+        });
+    }
+
+    @Test
+    void buscar_combinesTextAndStatusFilters() {
+        List<PedidoListagem> pedidos = this.pedidoRepository.buscar("atraso", Pedido.Status.PENDENTE_ENVIO, null, null, 10);
+
+        assertThat(pedidos).extracting(PedidoListagem::descricao).containsExactly("atraso na separacao");
+    }
+
+    @Test
+    void buscar_pagesByKeysetWithOnlyTheGivenFilters() {
+        List<UUID> ids = new ArrayList<>();
+        List<PedidoListagem> pagina = this.pedidoRepository.buscar(null, null, this.cliente.getId(), null, 4);
+        while (!pagina.isEmpty()) {
+            pagina.forEach(pedido -> ids.add(pedido.id()));
+            pagina = this.pedidoRepository.buscar(null, null, this.cliente.getId(), pagina.getLast().id(), 4);
+        }
+
+        assertThat(ids).hasSize(6).doesNotHaveDuplicates().isSorted();
+        assertThat(this.pedidoRepository.buscar("ATRASO", null, null, null, 10)).hasSize(2);
+    }
+
+    @Test
+    void referenciaDoCliente_answersTheIdWithoutLoadingTheRow() {
+        // CPF sem cadastro: se getId() carregasse o proxy, lancaria EntityNotFoundException
+        Cliente referencia = this.entityManager.getReference(Cliente.class, 11144477735L);
+        Pedido pedido = new Pedido(null, referencia, Pedido.Status.PENDENTE_ENVIO, "sem select");
+
+        assertThat(referencia.getId()).isEqualTo(11144477735L);
+        assertThat(PedidoAlteradoEvent.from(pedido).cpf()).isEqualTo("11144477735");
+        assertThat(Hibernate.isInitialized(referencia)).isFalse();
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.external_interface.feign.CepApi;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CepServiceImplTest {
+
+    private CepService cepService;
+    private CepApi cepApi;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        this.cepApi = mock(CepApi.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.cepService = new CepServiceImpl(cepApi, Optional.empty(),
+                CircuitBreaker.ofDefaults("cep"), Bulkhead.ofDefaults("cep"), meterRegistry, Runnable::run, 100, Duration.ofDays(1), Duration.ofHours(1));
+    }
+
+    @Test
+    void get_servesRepeatedLookupsFromCache() {
+        CepDetails cepDetails = new CepDetails("01310-100", "Avenida Paulista", "Bela Vista", "São Paulo", "São Paulo");
+        when(this.cepApi.get("01310100")).thenReturn(cepDetails);
+
+        assertThat(this.cepService.get("01310-100")).isEqualTo(cepDetails);
+        assertThat(this.cepService.get("01310100")).isEqualTo(cepDetails);
+
+        verify(this.cepApi, times(1)).get("01310100");
+        assertThat(this.meterRegistry.get("cache.gets").tag("cache", "cep").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_cachesUnknownCepAsNegative() {
+        when(this.cepApi.get("99999999")).thenReturn(new CepDetails(null, null, null, null, null));
+
+        assertThat(this.cepService.get("99999999")).isNull();
+        assertThat(this.cepService.get("99999999")).isNull();
+
+        verify(this.cepApi, times(1)).get("99999999");
+    }
+
+    @Test
+    void get_returnsNullWithoutCallingApiWhenCepIsBlank() {
+        assertThat(this.cepService.get(" ")).isNull();
+        assertThat(this.cepService.get(null)).isNull();
+
+        verifyNoInteractions(this.cepApi);
+    }
+
+    @Test
+    void get_doesNotCountAFullBulkheadAsACircuitBreakerFailure() {
+        final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("cep");
+        final Bulkhead bulkhead = Bulkhead.of("cep", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        final CepService cepService = new CepServiceImpl(cepApi, Optional.empty(), circuitBreaker, bulkhead,
+                meterRegistry, Runnable::run, 100, Duration.ofDays(1), Duration.ofHours(1));
+        // Outra consulta ocupando a unica permissao
+        assertThat(bulkhead.tryAcquirePermission()).isTrue();
+
+        assertThat(cepService.get("01310100")).isNull();
+
+        verifyNoInteractions(this.cepApi);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+}
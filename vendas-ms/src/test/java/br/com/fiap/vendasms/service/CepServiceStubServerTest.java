@@ -0,0 +1,137 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.external_interface.feign.CepApi;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercita o {@link CepServiceImpl} contra um servidor HTTP local no lugar do ViaCEP.
+ */
+class CepServiceStubServerTest {
+
+    private static final byte[] PAULISTA = """
+            {"cep":"01310-100","logradouro":"Avenida Paulista","bairro":"Bela Vista",
+             "localidade":"São Paulo","estado":"São Paulo"}""".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer viaCepStub;
+    private ExecutorService executor;
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private final CountDownLatch liberarResposta = new CountDownLatch(1);
+    private volatile int statusResposta = 200;
+
+    private CircuitBreaker circuitBreaker;
+    private CepService cepService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.viaCepStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.viaCepStub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.viaCepStub.createContext("/", this::responder);
+        this.viaCepStub.start();
+
+        CepApi cepApi = Feign.builder()
+                .contract(new SpringMvcContract())
+                .decoder(new SpringDecoder(() -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter())))
+                .target(CepApi.class, "http://localhost:" + this.viaCepStub.getAddress().getPort());
+
+        this.circuitBreaker = CircuitBreaker.of("cep", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.cepService = new CepServiceImpl(cepApi, Optional.empty(), this.circuitBreaker,
+                Bulkhead.ofDefaults("cep"), new SimpleMeterRegistry(), this.executor,
+                100, Duration.ofDays(1), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.viaCepStub.stop(0);
+        this.executor.close();
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        this.chamadas.incrementAndGet();
+        try {
+            this.liberarResposta.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.statusResposta != 200) {
+            exchange.sendResponseHeaders(this.statusResposta, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, PAULISTA.length);
+        exchange.getResponseBody().write(PAULISTA);
+        exchange.close();
+    }
+
+    @Test
+    void getAsync_coalescesConcurrentLookupsForSameCep() {
+        List<CompletableFuture<CepDetails>> consultas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            consultas.add(this.cepService.getAsync("01310100"));
+        }
+        this.liberarResposta.countDown();
+
+        CompletableFuture.allOf(consultas.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(consultas).allSatisfy(consulta -> assertThat(consulta.join().logradouro()).isEqualTo("Avenida Paulista"));
+        assertThat(this.chamadas.get()).isEqualTo(1);
+    }
+
+    @Test
+    void get_opensCircuitAndFallsBackWhenViaCepFails() {
+        this.statusResposta = 503;
+        this.liberarResposta.countDown();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(this.cepService.get("01310100")).isNull();
+        }
+
+        assertThat(this.circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(this.chamadas.get()).isEqualTo(4);
+    }
+
+    @Test
+    void get_doesNotCacheFailures() {
+        this.statusResposta = 503;
+        this.liberarResposta.countDown();
+        assertThat(this.cepService.get("01310100")).isNull();
+
+        this.statusResposta = 200;
+        assertThat(this.cepService.get("01310100").logradouro()).isEqualTo("Avenida Paulista");
+    }
+}
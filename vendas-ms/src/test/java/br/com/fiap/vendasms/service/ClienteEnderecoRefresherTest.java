@@ -0,0 +1,81 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Sem a transacao do teste: o refresher grava e confirma cada cliente por conta propria
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ClienteEnderecoRefresher.class, ClienteServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteEnderecoRefresherTest {
+
+    @Autowired
+    ClienteEnderecoRefresher refresher;
+
+    @Autowired
+    ClienteService clienteService;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @MockitoBean
+    CepService cepService;
+
+    @AfterEach
+    void tearDown() {
+        this.clienteRepository.deleteAll();
+    }
+
+    @Test
+    void atualizarVencidos_resolvesMissingAddressesAndBumpsVersao() {
+        // ViaCEP fora do ar no cadastro: cliente gravado sem endereco
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+        when(this.cepService.get("01310100"))
+                .thenReturn(new CepDetails("01310100", "Avenida Paulista", "Bela Vista", "Sao Paulo", "SP"));
+
+        this.refresher.atualizarVencidos();
+
+        final Cliente cliente = this.clienteService.findById("12345678909");
+        assertThat(cliente.getLogradouro()).isEqualTo("Avenida Paulista");
+        // O endereco aparece na pagina: o ETag tem que mudar
+        assertThat(cliente.getVersao()).isEqualTo(versao + 1);
+
+        // Recem-resolvido: a proxima rodada nao consulta o ViaCEP de novo
+        this.refresher.atualizarVencidos();
+        verify(this.cepService, times(2)).get("01310100");
+    }
+
+    @Test
+    void atualizarVencidos_postponesCepsWithoutAnswer() {
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+
+        this.refresher.atualizarVencidos();
+
+        final Cliente cliente = this.clienteService.findById("12345678909");
+        assertThat(cliente.getLogradouro()).isNull();
+        // So a data da tentativa muda: nao conta como alteracao da pagina
+        assertThat(cliente.getVersao()).isEqualTo(versao);
+        assertThat(cliente.getEnderecoAtualizadoEm()).isBefore(Instant.now().minus(Duration.ofDays(29)));
+    }
+}
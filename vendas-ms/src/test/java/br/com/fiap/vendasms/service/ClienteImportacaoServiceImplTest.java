@@ -0,0 +1,151 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.dto.ClienteImportacaoDto;
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Sem a transacao do teste: cada lote e gravado e confirmado pela propria importacao.
+// H2 em modo MySQL (o banco embutido padrao do @DataJpaTest nao aceita ON DUPLICATE KEY UPDATE)
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:importacao;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ClienteImportacaoServiceImpl.class, ClienteServiceImpl.class, ClienteImportacaoServiceImplTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteImportacaoServiceImplTest {
+
+    @TestConfiguration
+    static class Config {
+
+        // Executa o pipeline na thread do teste
+        @Bean
+        Executor importacaoExecutor() {
+            return Runnable::run;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    ClienteImportacaoService importacaoService;
+
+    @Autowired
+    ClienteService clienteService;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockitoBean
+    CepService cepService;
+
+    @AfterEach
+    void tearDown() {
+        this.clienteRepository.deleteAll();
+    }
+
+    @Test
+    void importar_validatesDedupesEnrichesAndUpsertsClientes() throws Exception {
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+        when(this.cepService.getAsync(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        when(this.cepService.getAsync("04538133")).thenReturn(CompletableFuture.completedFuture(
+                new CepDetails("04538133", "Avenida Brigadeiro Faria Lima", "Itaim Bibi", "Sao Paulo", "SP")));
+
+        final String csv = """
+                cpf;nome;cep;numero;complemento;telefone
+                123.456.789-09;Maria Silva;01310-100;1000;apto 2;
+                98765432100;Joao;04538133;1;;11999999999
+                12345678900;Digito errado;01310100;1;;
+                98765432100;Joao Souza;04538133;2;;
+                """;
+        final ClienteImportacaoDto inicio = this.importacaoService.importar(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        final ClienteImportacaoDto fim = this.importacaoService.progresso(inicio.id()).orElseThrow();
+
+        assertThat(fim.fase()).isEqualTo("CONCLUIDA");
+        assertThat(fim.linhas()).isEqualTo(4);
+        assertThat(fim.invalidas()).isEqualTo(1);
+        assertThat(fim.duplicadas()).isEqualTo(1);
+        assertThat(fim.inseridos()).isEqualTo(1);
+        assertThat(fim.atualizados()).isEqualTo(1);
+        assertThat(fim.erros()).containsExactly("linha 4: CPF invalido");
+        // Uma consulta por CEP distinto
+        assertThat(fim.ceps()).isEqualTo(2);
+        verify(this.cepService, times(2)).getAsync(anyString());
+
+        // O cliente que estava no cache de segundo nivel e relido com os dados importados
+        final Cliente maria = this.clienteService.findById("12345678909");
+        assertThat(maria.getNome()).isEqualTo("Maria Silva");
+        assertThat(maria.getCep()).isEqualTo("01310100");
+        assertThat(maria.getVersao()).isEqualTo(versao + 1);
+        final Cliente joao = this.clienteService.findById("98765432100");
+        assertThat(joao.getNome()).isEqualTo("Joao Souza");
+        // Endereco resolvido na fase de CEP e gravado junto do cliente
+        assertThat(joao.getLogradouro()).isEqualTo("Avenida Brigadeiro Faria Lima");
+        assertThat(joao.getEnderecoAtualizadoEm()).isNotNull();
+        assertThat(maria.getLogradouro()).isNull();
+        assertThat(this.meterRegistry.get("vendas.clientes.importacao.linhas").tag("resultado", "gravada").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void importar_keepsTheResolvedAddressAndVersionWhenNothingVisibleChanged() throws Exception {
+        final String csv = "12345678909;Maria;01310100;1000;;\n";
+        when(this.cepService.getAsync(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        when(this.cepService.getAsync("01310100")).thenReturn(CompletableFuture.completedFuture(
+                new CepDetails("01310100", "Avenida Paulista", "Bela Vista", "Sao Paulo", "SP")));
+        importar(csv);
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+
+        // Mesmo arquivo, ViaCEP fora do ar: o endereco gravado fica e a versao (ETag) nao muda
+        when(this.cepService.getAsync("01310100")).thenReturn(CompletableFuture.completedFuture(null));
+        importar(csv);
+        Cliente maria = this.clienteService.findById("12345678909");
+        assertThat(maria.getLogradouro()).isEqualTo("Avenida Paulista");
+        assertThat(maria.getVersao()).isEqualTo(versao);
+
+        // CEP novo sem resposta: o endereco antigo nao vale mais para ele
+        importar("12345678909;Maria;04538133;1000;;\n");
+        maria = this.clienteService.findById("12345678909");
+        assertThat(maria.getCep()).isEqualTo("04538133");
+        assertThat(maria.getLogradouro()).isNull();
+        assertThat(maria.getVersao()).isEqualTo(versao + 1);
+    }
+
+    private void importar(String csv) throws Exception {
+        final ClienteImportacaoDto inicio = this.importacaoService.importar(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertThat(this.importacaoService.progresso(inicio.id()).orElseThrow().fase()).isEqualTo("CONCLUIDA");
+    }
+}
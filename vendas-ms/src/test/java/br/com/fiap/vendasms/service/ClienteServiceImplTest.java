@@ -0,0 +1,186 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.repositories.PedidoRepository;
+import br.com.fiap.vendasms.repositories.PedidoStatusEventoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.when;
+
+// Sem a transacao do teste: o cache de segundo nivel so e atualizado no commit
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({ClienteServiceImpl.class, PedidoServiceImpl.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteServiceImplTest {
+
+    @Autowired
+    ClienteService clienteService;
+
+    @Autowired
+    PedidoService pedidoService;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @Autowired
+    PedidoStatusEventoRepository statusEventoRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    CepService cepService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        this.entityManagerFactory.getCache().evictAll();
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        this.statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.statusEventoRepository.deleteAll();
+        this.pedidoRepository.deleteAll();
+        this.clienteRepository.deleteAll();
+    }
+
+    @Test
+    void findById_isServedFromTheSecondLevelCache() {
+        this.clienteService.findById("12345678909");
+        this.clienteService.findById("12345678909");
+
+        assertThat(this.statistics.getPrepareStatementCount()).isZero();
+        assertThat(this.statistics.getDomainDataRegionStatistics("clientes").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void saveOrUpdate_refreshesTheCachedEntry() {
+        this.clienteService.findById("12345678909");
+
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria Silva", "01310100", "1000", null, null));
+        this.statistics.clear();
+
+        assertThat(this.clienteService.findById("12345678909").getNome()).isEqualTo("Maria Silva");
+        assertThat(this.statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void pedidoSave_keepsCachedClientes() {
+        this.clienteService.findById("12345678909");
+
+        // O resumo por status e atualizado com SQL nativo, que nao pode esvaziar o cache inteiro
+        this.pedidoService.save(new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido"));
+
+        assertThat(this.entityManagerFactory.getCache().contains(Cliente.class, 12345678909L)).isTrue();
+    }
+
+    @Test
+    void saveOrUpdate_incrementsVersao() {
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria Silva", "01310100", "1000", null, null));
+
+        assertThat(this.clienteService.findById("12345678909").getVersao()).isEqualTo(versao + 1);
+    }
+
+    @Test
+    void pedidoSave_doesNotLeaveAStaleVersaoInTheCache() {
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+
+        // A versao e o ETag da pagina de pedidos: o cache L2 nao pode devolver a anterior
+        this.pedidoService.save(new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido"));
+
+        assertThat(this.clienteService.findById("12345678909").getVersao()).isEqualTo(versao + 1);
+    }
+
+    @Test
+    void pedidoSaveAll_incrementsVersao() {
+        final long versao = this.clienteService.findById("12345678909").getVersao();
+
+        this.pedidoService.saveAll(List.of(
+                new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "um"),
+                new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "dois")));
+
+        assertThat(this.clienteService.findById("12345678909").getVersao()).isEqualTo(versao + 1);
+    }
+
+    @Test
+    void pedidoSaveAll_evictsOnlyTheCustomersOfTheBatch() {
+        this.clienteService.saveOrUpdate(new Cliente("98765432100", "Joao", "01310100", "20", null, null));
+        this.clienteService.findById("12345678909");
+        this.clienteService.findById("98765432100");
+
+        this.pedidoService.saveAll(List.of(new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "um")));
+
+        assertThat(this.entityManagerFactory.getCache().contains(Cliente.class, 12345678909L)).isFalse();
+        assertThat(this.entityManagerFactory.getCache().contains(Cliente.class, 98765432100L)).isTrue();
+    }
+
+    @Test
+    void findById_acceptsAFormattedCpf() {
+        assertThat(this.clienteService.findById("123.456.789-09").getNome()).isEqualTo("Maria");
+    }
+
+    @Test
+    void saveOrUpdate_rejectsInvalidVerifierDigits() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                this.clienteService.saveOrUpdate(new Cliente("12345678900", "Jose", "01310100", "1", null, null)));
+    }
+
+    @Test
+    void saveOrUpdate_storesTheResolvedAddress() {
+        when(this.cepService.get("01310100"))
+                .thenReturn(new CepDetails("01310100", "Avenida Paulista", "Bela Vista", "Sao Paulo", "SP"));
+
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+
+        final Cliente cliente = this.clienteService.findById("12345678909");
+        assertThat(cliente.getLogradouro()).isEqualTo("Avenida Paulista");
+        assertThat(cliente.getLocalidade()).isEqualTo("Sao Paulo");
+        assertThat(cliente.getEnderecoAtualizadoEm()).isNotNull();
+    }
+
+    @Test
+    void saveOrUpdate_dropsTheOldAddressWhenTheCepChanges() {
+        when(this.cepService.get("01310100"))
+                .thenReturn(new CepDetails("01310100", "Avenida Paulista", "Bela Vista", "Sao Paulo", "SP"));
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+
+        // ViaCEP sem resposta para o CEP novo: o endereco anterior nao pode continuar na pagina
+        this.clienteService.saveOrUpdate(new Cliente("12345678909", "Maria", "20040020", "10", null, null));
+
+        final Cliente cliente = this.clienteService.findById("12345678909");
+        assertThat(cliente.getLogradouro()).isNull();
+        assertThat(cliente.getEnderecoAtualizadoEm()).isNull();
+    }
+}
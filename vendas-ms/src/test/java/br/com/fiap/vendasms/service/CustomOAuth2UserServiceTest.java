@@ -0,0 +1,115 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.controller.AdminController;
+import br.com.fiap.vendasms.entities.Usuario;
+import br.com.fiap.vendasms.events.UsuarioRolesAlteradosEvent;
+import br.com.fiap.vendasms.repositories.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem a transacao do teste: cada leitura das autoridades ve o que foi confirmado no banco
+@DataJpaTest(properties = "usuarios.admins=ana,carla")
+@ActiveProfiles("test")
+@Import({CustomOAuth2UserService.class, AdminController.class, CustomOAuth2UserServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomOAuth2UserServiceTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    CustomOAuth2UserService userService;
+
+    @Autowired
+    AdminController adminController;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        final Usuario usuario = new Usuario("maria");
+        usuario.getRoles().add("ROLE_PEDIDO");
+        this.usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // O cache vive no contexto compartilhado entre os testes
+        this.userService.onRolesAlteradas(new UsuarioRolesAlteradosEvent("maria"));
+        this.userService.onRolesAlteradas(new UsuarioRolesAlteradosEvent("joao"));
+        this.userService.onRolesAlteradas(new UsuarioRolesAlteradosEvent("ana"));
+        this.usuarioRepository.deleteAll();
+    }
+
+    @Test
+    void authorities_areCachedPerLogin() {
+        assertThat(this.userService.authorities("maria")).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_PEDIDO");
+        adicionarPapel("maria", "ROLE_ADMIN");
+
+        // Ainda o valor em cache: a alteracao direta no banco nao e vista ate a invalidacao
+        assertThat(this.userService.authorities("maria")).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_PEDIDO");
+        assertThat(this.meterRegistry.get("cache.gets").tag("cache", "usuario-roles").tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void evictRoles_dropsTheCachedAuthoritiesOfThatLogin() {
+        this.userService.authorities("maria");
+        adicionarPapel("maria", "ROLE_ADMIN");
+
+        assertThat(this.adminController.evictRoles("maria").getStatusCode().value()).isEqualTo(204);
+
+        assertThat(this.userService.authorities("maria")).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_PEDIDO", "ROLE_ADMIN");
+    }
+
+    @Test
+    void authorities_createsUnknownLoginsWithoutRoles() {
+        assertThat(this.userService.authorities("joao")).isEmpty();
+        assertThat(this.usuarioRepository.existsById("joao")).isTrue();
+    }
+
+    @Test
+    void authorities_grantAdminOnlyToTheConfiguredLogins() {
+        final Usuario ana = new Usuario("ana");
+        ana.getRoles().add("ROLE_PEDIDO");
+        this.usuarioRepository.save(ana);
+
+        assertThat(this.userService.authorities("ana")).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_PEDIDO", "ROLE_ADMIN");
+        assertThat(this.userService.authorities("maria")).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_PEDIDO");
+    }
+
+    private void adicionarPapel(String login, String papel) {
+        final Usuario usuario = this.usuarioRepository.findById(login).orElseThrow();
+        usuario.getRoles().add(papel);
+        this.usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.OutboxEvento;
+import br.com.fiap.vendasms.entities.OutboxEventoFalha;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.external_interface.feign.CepDetails;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.repositories.OutboxEventoFalhaRepository;
+import br.com.fiap.vendasms.repositories.OutboxEventoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.TextMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.activemq.broker-url=vm://outbox?broker.persistent=false",
+        "outbox.relay.lote=10"
+})
+@ActiveProfiles("test")
+@Import({PedidoServiceImpl.class, OutboxRelay.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ActiveMQAutoConfiguration.class, JmsAutoConfiguration.class})
+class OutboxRelayTest {
+
+    @Autowired
+    PedidoService pedidoService;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    OutboxEventoRepository outboxRepository;
+
+    @Autowired
+    OutboxEventoFalhaRepository falhaRepository;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    JmsTemplate jmsTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockitoBean
+    CepService cepService;
+
+    @Test
+    void save_writesOutboxEventInTheSameTransaction() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+
+        this.pedidoService.save(new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido"));
+
+        assertThat(this.outboxRepository.findAll()).singleElement()
+                .satisfies(evento -> assertThat(evento.getPayload()).contains("12345678909"));
+    }
+
+    @Test
+    void publicarPendentes_drainsEveryBatchAndSendsEnrichedMessages() throws Exception {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", "apto 2", null));
+        when(this.cepService.get("01310100"))
+                .thenReturn(new CepDetails("01310100", "Avenida Paulista", "Bela Vista", "Sao Paulo", "SP"));
+        this.pedidoService.saveAll(IntStream.range(0, 25)
+                .mapToObj(i -> new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido " + i))
+                .toList());
+
+        this.outboxRelay.publicarPendentes();
+
+        assertThat(this.outboxRepository.count()).isZero();
+        this.jmsTemplate.setReceiveTimeout(1000);
+        for (int i = 0; i < 25; i++) {
+            TextMessage message = (TextMessage) this.jmsTemplate.receive("entregas.solicitadas");
+            assertThat(message).isNotNull();
+            JsonNode mensagem = this.objectMapper.readTree(message.getText());
+            assertThat(mensagem.get("destinatario").asText()).isEqualTo("Maria");
+            assertThat(mensagem.get("enderecoCompleto").asText())
+                    .isEqualTo("Avenida Paulista, 1000 - apto 2, Bela Vista, Sao Paulo/SP - CEP 01310100");
+        }
+    }
+
+    @Test
+    void publicarPendentes_movesPoisonEventsAsideAndPublishesTheRest() throws Exception {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        final UUID ilegivel = UUID.randomUUID();
+        this.outboxRepository.save(new OutboxEvento(ilegivel, OutboxEvento.PEDIDO_CRIADO, "{invalido"));
+        this.pedidoService.save(new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido"));
+
+        this.outboxRelay.publicarPendentes();
+
+        assertThat(this.outboxRepository.count()).isZero();
+        assertThat(this.falhaRepository.findAll()).singleElement()
+                .satisfies(falha -> {
+                    assertThat(falha.getAgregadoId()).isEqualTo(ilegivel);
+                    assertThat(falha.getPayload()).isEqualTo("{invalido");
+                    assertThat(falha.getErro()).startsWith("payload invalido");
+                });
+        this.jmsTemplate.setReceiveTimeout(1000);
+        TextMessage message = (TextMessage) this.jmsTemplate.receive("entregas.solicitadas");
+        assertThat(this.objectMapper.readTree(message.getText()).get("destinatario").asText()).isEqualTo("Maria");
+        assertThat(this.jmsTemplate.receive("entregas.solicitadas")).isNull();
+    }
+
+    @Test
+    void publicarPendentes_movesEventsOfMissingCustomersAsideWithoutPublishing() {
+        final UUID pedidoId = UUID.randomUUID();
+        this.outboxRepository.save(new OutboxEvento(pedidoId, OutboxEvento.PEDIDO_CRIADO,
+                "{\"pedidoId\":\"" + pedidoId + "\",\"cpf\":\"98765432100\"}"));
+
+        this.outboxRelay.publicarPendentes();
+
+        assertThat(this.outboxRepository.count()).isZero();
+        assertThat(this.falhaRepository.findAll()).extracting(OutboxEventoFalha::getErro)
+                .containsExactly("cliente 98765432100 nao encontrado");
+        this.jmsTemplate.setReceiveTimeout(500);
+        assertThat(this.jmsTemplate.receive("entregas.solicitadas")).isNull();
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.events.PedidoAlteradoEvent;
+import br.com.fiap.vendasms.events.PedidosAlteradosEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class PedidoEventosServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PedidoEventosServiceImpl service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.service = new PedidoEventosServiceImpl(Runnable::run, this.meterRegistry, Duration.ofMinutes(1));
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new EventosController(this.service)).build();
+    }
+
+    @Test
+    void onPedidoAlterado_pushesOnlyTheCustomersOrders() throws Exception {
+        MvcResult stream = this.mockMvc.perform(get("/eventos/12345678909"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        UUID doCliente = UUID.randomUUID();
+        UUID deOutro = UUID.randomUUID();
+
+        this.service.onPedidoAlterado(new PedidoAlteradoEvent(doCliente, "12345678909", Pedido.Status.FINALIZADO, "pedido"));
+        this.service.onPedidoAlterado(new PedidoAlteradoEvent(deOutro, "98765432100", Pedido.Status.FINALIZADO, "outro"));
+
+        assertThat(stream.getResponse().getContentAsString())
+                .contains("event:pedido")
+                .contains("\"id\":\"" + doCliente + "\"")
+                .contains("\"status\":\"FINALIZADO\"")
+                .doesNotContain(deOutro.toString());
+        assertThat(this.meterRegistry.get("vendas.sse.conexoes").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void onPedidosAlterados_pushesTheBatchOrdersOfSubscribedCustomersOnly() throws Exception {
+        MvcResult stream = this.mockMvc.perform(get("/eventos/12345678909"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        UUID primeiro = UUID.randomUUID();
+        UUID segundo = UUID.randomUUID();
+        UUID deOutro = UUID.randomUUID();
+
+        this.service.onPedidosAlterados(new PedidosAlteradosEvent(List.of(
+                new PedidoAlteradoEvent(primeiro, "12345678909", Pedido.Status.PENDENTE_ENVIO, "um"),
+                new PedidoAlteradoEvent(deOutro, "98765432100", Pedido.Status.PENDENTE_ENVIO, "outro"),
+                new PedidoAlteradoEvent(segundo, "12345678909", Pedido.Status.PENDENTE_ENVIO, "dois"))));
+
+        String enviados = stream.getResponse().getContentAsString();
+        assertThat(enviados.indexOf("\"id\":\"" + primeiro + "\"")).isNotNegative()
+                .isLessThan(enviados.indexOf("\"id\":\"" + segundo + "\""));
+        assertThat(enviados).doesNotContain(deOutro.toString());
+    }
+
+    @Test
+    void onPedidoAlterado_deliversTheEventsOfACustomerInPublicationOrder() throws Exception {
+        // Tarefas executadas so no fim, da ultima para a primeira: a pior ordem para o envio
+        List<Runnable> tarefas = new ArrayList<>();
+        PedidoEventosServiceImpl emOrdem = new PedidoEventosServiceImpl(tarefas::add, this.meterRegistry, Duration.ofMinutes(1));
+        MvcResult stream = MockMvcBuilders.standaloneSetup(new EventosController(emOrdem)).build()
+                .perform(get("/eventos/12345678909"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        UUID pedido = UUID.randomUUID();
+
+        emOrdem.onPedidoAlterado(new PedidoAlteradoEvent(pedido, "12345678909", Pedido.Status.PENDENTE_ENVIO, "pedido"));
+        emOrdem.onPedidoAlterado(new PedidoAlteradoEvent(pedido, "12345678909", Pedido.Status.ENVIO_EM_PROCESSAMENTO, "pedido"));
+        emOrdem.onPedidoAlterado(new PedidoAlteradoEvent(pedido, "12345678909", Pedido.Status.FINALIZADO, "pedido"));
+        tarefas.reversed().forEach(Runnable::run);
+
+        String enviados = stream.getResponse().getContentAsString();
+        assertThat(tarefas).hasSize(1);
+        assertThat(enviados.indexOf("PENDENTE_ENVIO")).isNotNegative()
+                .isLessThan(enviados.indexOf("ENVIO_EM_PROCESSAMENTO"));
+        assertThat(enviados.indexOf("ENVIO_EM_PROCESSAMENTO")).isLessThan(enviados.indexOf("FINALIZADO"));
+    }
+
+    @RestController
+    static class EventosController {
+
+        private final PedidoEventosService service;
+
+        EventosController(PedidoEventosService service) {
+            this.service = service;
+        }
+
+        @GetMapping("/eventos/{cpf}")
+        SseEmitter eventos(@PathVariable("cpf") String cpf) {
+            return this.service.inscrever(cpf);
+        }
+    }
+}
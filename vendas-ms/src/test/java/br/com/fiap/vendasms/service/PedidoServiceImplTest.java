@@ -0,0 +1,199 @@
+package br.com.fiap.vendasms.service;
+
+import br.com.fiap.vendasms.controller.PedidoLoteController;
+import br.com.fiap.vendasms.entities.Cliente;
+import br.com.fiap.vendasms.entities.Pedido;
+import br.com.fiap.vendasms.entities.PedidoStatusResumo;
+import br.com.fiap.vendasms.events.PedidoAlteradoEvent;
+import br.com.fiap.vendasms.events.PedidosAlteradosEvent;
+import br.com.fiap.vendasms.repositories.PedidoStatusEventoRepository;
+import br.com.fiap.vendasms.repositories.PedidoStatusResumoRepository;
+import br.com.fiap.vendasms.repositories.ClienteRepository;
+import br.com.fiap.vendasms.repositories.PedidoRepository;
+import br.com.fiap.vendasms.repositories.projections.PedidoListagem;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Window;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "pedidos.exportacao.pagina=7"})
+@ActiveProfiles("test")
+@Import(PedidoServiceImpl.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@RecordApplicationEvents
+class PedidoServiceImplTest {
+
+    @Autowired
+    PedidoService pedidoService;
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @Autowired
+    PedidoStatusEventoRepository statusEventoRepository;
+
+    @Autowired
+    PedidoStatusResumoRepository statusResumoRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ApplicationEvents applicationEvents;
+
+    @Test
+    void saveAll_persistsAllOrdersAcrossSeveralBatches() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        List<Pedido> pedidos = IntStream.range(0, 120)
+                .mapToObj(i -> new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido " + i))
+                .toList();
+        Statistics statistics = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int gravados = this.pedidoService.saveAll(pedidos);
+
+        assertThat(gravados).isEqualTo(120);
+        // 360 INSERTs (pedido, outbox e evento de status) enviados em lotes JDBC de 50: um
+        // statement preparado por tabela em cada flush, mais as atualizacoes de cliente e resumo
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(360);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+        assertThat(this.pedidoRepository.findByCliente_Id(12345678909L)).hasSize(120);
+        // Um evento para o lote inteiro, nao uma sincronizacao de transacao por pedido
+        assertThat(this.applicationEvents.stream(PedidoAlteradoEvent.class)).isEmpty();
+        assertThat(this.applicationEvents.stream(PedidosAlteradosEvent.class)).singleElement()
+                .satisfies(evento -> assertThat(evento.pedidos()).hasSize(120));
+    }
+
+    @Test
+    void saveAll_rejectsAnUnknownCustomerWithTheLineOfTheFileAndSavesNothing() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        PedidoLoteController controller = new PedidoLoteController(this.pedidoService);
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "pedidos.csv", "text/csv", """
+                cpf;descricao;status
+                12345678909;pedido um;
+                98765432100;pedido dois;
+                """.getBytes(StandardCharsets.UTF_8));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> controller.importarCsv(arquivo))
+                .withMessage("linha 3: cliente 98765432100 nao cadastrado")
+                .satisfies(e -> assertThat(controller.loteInvalido(e).getStatusCode().value()).isEqualTo(400));
+        assertThat(this.pedidoRepository.count()).isZero();
+    }
+
+    @Test
+    void findByClienteCpf_loadsEachPageWithASingleStatement() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        this.pedidoService.saveAll(IntStream.range(0, 45)
+                .mapToObj(i -> new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido " + i))
+                .toList());
+        Statistics statistics = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Window<PedidoListagem> primeira = this.pedidoService.findByClienteCpf("12345678909", null);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Window<PedidoListagem> segunda = this.pedidoService.findByClienteCpf("12345678909", primeira.getContent().getLast().id());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(primeira.hasNext()).isTrue();
+        assertThat(segunda.getContent()).hasSize(20).allSatisfy(pedido -> assertThat(pedido.nome()).isEqualTo("Maria"));
+    }
+
+    @Test
+    void exportar_streamsEveryMatchingOrderInIdOrder() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        this.clienteRepository.saveAndFlush(new Cliente("98765432100", "Joao", "01310100", "20", null, null));
+        this.pedidoService.saveAll(IntStream.range(0, 30)
+                .mapToObj(i -> new Pedido(null, new Cliente(i % 3 == 0 ? "98765432100" : "12345678909"),
+                        i % 2 == 0 ? Pedido.Status.FINALIZADO : Pedido.Status.PENDENTE_ENVIO, "pedido " + i))
+                .toList());
+
+        List<PedidoListagem> doCliente = new ArrayList<>();
+        long exportados = this.pedidoService.exportar("12345678909", null, doCliente::add);
+        List<PedidoListagem> enviados = new ArrayList<>();
+        this.pedidoService.exportar(null, Pedido.Status.FINALIZADO, enviados::add);
+
+        assertThat(exportados).isEqualTo(20);
+        assertThat(doCliente).allSatisfy(pedido -> assertThat(pedido.cpf()).isEqualTo("12345678909"))
+                .isSortedAccordingTo(Comparator.comparing(PedidoListagem::id));
+        assertThat(enviados).hasSize(15).allSatisfy(pedido -> assertThat(pedido.status()).isEqualTo(Pedido.Status.FINALIZADO));
+    }
+
+    @Test
+    void alterarStatus_appendsAnEventAndMovesTheOrderBetweenSummaryRows() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+        this.pedidoService.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido " + i))
+                .toList());
+        Pedido pedido = this.pedidoRepository.findByCliente_Id(12345678909L).getFirst();
+
+        this.pedidoService.alterarStatus(pedido.getId(), Pedido.Status.ENVIO_EM_PROCESSAMENTO);
+        this.pedidoService.alterarStatus(pedido.getId(), Pedido.Status.ENVIO_EM_PROCESSAMENTO);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        assertThat(this.statusEventoRepository.findByPedidoIdOrderById(pedido.getId()))
+                .extracting(evento -> evento.getStatusAnterior() + "->" + evento.getStatusNovo())
+                .containsExactly("null->PENDENTE_ENVIO", "PENDENTE_ENVIO->ENVIO_EM_PROCESSAMENTO");
+        assertThat(this.pedidoService.resumoPorStatus())
+                .filteredOn(resumo -> resumo.quantidade() > 0)
+                .extracting(resumo -> resumo.status() + "=" + resumo.quantidade())
+                .containsExactlyInAnyOrder("PENDENTE_ENVIO=2", "ENVIO_EM_PROCESSAMENTO=1");
+    }
+
+    @Test
+    void resumoPorStatus_sumsTheSlotsEachOrderWasCountedIn() {
+        this.clienteRepository.saveAndFlush(new Cliente("12345678909", "Maria", "01310100", "1000", null, null));
+
+        // Um save por transacao de pedido, cada um num slot sorteado
+        IntStream.range(0, 20).forEach(i -> this.pedidoService.save(
+                new Pedido(null, new Cliente("12345678909"), Pedido.Status.PENDENTE_ENVIO, "pedido " + i)));
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        assertThat(this.statusResumoRepository.count()).isEqualTo(Pedido.Status.values().length * 8L);
+        assertThat(this.statusResumoRepository.findAll())
+                .filteredOn(resumo -> resumo.getQuantidade() != 0)
+                .extracting(PedidoStatusResumo::getSlot)
+                .doesNotHaveDuplicates()
+                .hasSizeGreaterThan(1);
+        assertThat(this.pedidoService.resumoPorStatus())
+                .filteredOn(resumo -> resumo.quantidade() > 0)
+                .extracting(resumo -> resumo.status() + "=" + resumo.quantidade())
+                .containsExactly("PENDENTE_ENVIO=20");
+    }
+
+    @Test
+    void buscar_rejectsSearchesWithoutFiltersOrWithTooShortText() {
+        assertThatIllegalArgumentException().isThrownBy(() -> this.pedidoService.buscar(" ", null, "", null));
+        assertThatIllegalArgumentException().isThrownBy(() -> this.pedidoService.buscar("ab", null, null, null));
+        // Palavra curta no meio da frase: o FULLTEXT nunca encontraria a frase inteira
+        assertThatIllegalArgumentException().isThrownBy(() -> this.pedidoService.buscar("caneta de ouro", null, null, null))
+                .withMessageEndingWith(": de");
+        assertThat(this.pedidoService.buscar("caneta  azul", null, null, null)).isEmpty();
+    }
+}
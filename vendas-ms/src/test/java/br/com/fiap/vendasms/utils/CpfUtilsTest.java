@@ -0,0 +1,33 @@
+package br.com.fiap.vendasms.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CpfUtilsTest {
+
+    @Test
+    void normalizar_stripsPunctuationAndRestoresLeadingZeros() {
+        assertThat(CpfUtils.normalizar("123.456.789-09")).isEqualTo("12345678909");
+        assertThat(CpfUtils.normalizar("1234567890")).isEqualTo("01234567890");
+        assertThatIllegalArgumentException().isThrownBy(() -> CpfUtils.normalizar("123456789012"));
+        assertThatIllegalArgumentException().isThrownBy(() -> CpfUtils.normalizar("12a45678909"));
+    }
+
+    @Test
+    void paraNumero_roundTripsThroughTheBigintColumn() {
+        assertThat(CpfUtils.paraNumero("012.345.678-90")).isEqualTo(1_234_567_890L);
+        assertThat(CpfUtils.deNumero(1_234_567_890L)).isEqualTo("01234567890");
+        assertThat(CpfUtils.formatar("01234567890")).isEqualTo("012.345.678-90");
+    }
+
+    @Test
+    void valido_checksBothVerifierDigits() {
+        assertThat(CpfUtils.valido("123.456.789-09")).isTrue();
+        assertThat(CpfUtils.valido("98765432100")).isTrue();
+        assertThat(CpfUtils.valido("12345678900")).isFalse();
+        assertThat(CpfUtils.valido("11111111111")).isFalse();
+        assertThat(CpfUtils.valido("")).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.fiap.vendasms.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_generatesVersion7WithRfcVariantAndCurrentTimestamp() {
+        long antes = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(antes);
+    }
+
+    @Test
+    void next_isStrictlyIncreasingInBinaryOrder() {
+        List<byte[]> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(bytes(UuidV7Generator.next()));
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Arrays.compareUnsigned(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    void next_isUniqueAcrossThreads() {
+        ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 8).forEach(t -> executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(UuidV7Generator.next());
+                }
+            }));
+        }
+
+        assertThat(ids).hasSize(160_000);
+        // timestamp + contador sao unicos mesmo sem considerar os bits aleatorios
+        assertThat(ids.stream().map(UUID::getMostSignificantBits).distinct().count()).isEqualTo(160_000);
+    }
+
+    // Mesma ordem de bytes usada pelo Hibernate ao gravar UUID em BINARY(16)
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}